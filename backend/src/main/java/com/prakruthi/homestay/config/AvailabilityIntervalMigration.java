@@ -0,0 +1,112 @@
+package com.prakruthi.homestay.config;
+
+import com.prakruthi.homestay.model.Availability;
+import com.prakruthi.homestay.model.AvailabilityBlock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * One-off copy of the daily availability documents into interval blocks when
+ * app.availability.storage is switched to interval. Consecutive days with the same
+ * state become one block and days without a document stay uncovered, as they were.
+ * Rooms that already have blocks are skipped, so later runs copy nothing.
+ */
+@Component
+@Order(2) // Run after RoomIdMigration, before the availability calendar loads
+public class AvailabilityIntervalMigration implements CommandLineRunner {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${app.availability.storage:daily}")
+    private String storageMode;
+
+    @Override
+    public void run(String... args) {
+        if (!"interval".equalsIgnoreCase(storageMode)) {
+            return;
+        }
+
+        Set<String> migratedRooms = new HashSet<>(mongoTemplate.findDistinct(
+            new Query(), "roomId", AvailabilityBlock.class, String.class));
+
+        Query query = new Query().with(Sort.by("roomId", "date"));
+        // Leave out the DBRefs so they are not resolved per document
+        query.fields().include("roomId", "date", "isAvailable", "reason");
+
+        long days = 0;
+        long blocks = 0;
+        List<AvailabilityBlock> batch = new ArrayList<>();
+        AvailabilityBlock current = null;
+
+        try (Stream<Availability> stream = mongoTemplate.stream(query, Availability.class)) {
+            for (Availability day : (Iterable<Availability>) stream::iterator) {
+                if (day.getRoomId() == null || migratedRooms.contains(day.getRoomId())) {
+                    continue;
+                }
+                days++;
+                // A duplicate document for a day already copied would overlap the open block
+                if (current != null && current.getRoomId().equals(day.getRoomId())
+                        && !day.getDate().isAfter(current.getEndDate())) {
+                    continue;
+                }
+                if (current != null && continues(current, day)) {
+                    current.setEndDate(day.getDate());
+                    continue;
+                }
+                if (current != null) {
+                    batch.add(current);
+                    if (batch.size() == BATCH_SIZE) {
+                        blocks += flush(batch);
+                    }
+                }
+                current = new AvailabilityBlock();
+                current.setRoomId(day.getRoomId());
+                current.setStartDate(day.getDate());
+                current.setEndDate(day.getDate());
+                current.setAvailable(day.isAvailable());
+                current.setReason(day.getReason());
+            }
+        }
+
+        if (current != null) {
+            batch.add(current);
+        }
+        blocks += flush(batch);
+        if (blocks > 0) {
+            System.out.println("Migrated " + days + " daily availability documents into " + blocks + " blocks");
+        }
+    }
+
+    // The next day of the same room with the same state continues the block
+    private static boolean continues(AvailabilityBlock block, Availability day) {
+        return block.getRoomId().equals(day.getRoomId())
+            && day.getDate().equals(block.getEndDate().plusDays(1))
+            && block.isAvailable() == day.isAvailable()
+            && Objects.equals(block.getReason(), day.getReason());
+    }
+
+    private long flush(List<AvailabilityBlock> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        int inserted = mongoTemplate.insert(batch, AvailabilityBlock.class).size();
+        batch.clear();
+        return inserted;
+    }
+}
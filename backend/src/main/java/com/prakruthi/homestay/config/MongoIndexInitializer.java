@@ -0,0 +1,106 @@
+package com.prakruthi.homestay.config;
+
+import com.prakruthi.homestay.model.Availability;
+import com.prakruthi.homestay.model.AvailabilityBlock;
+import com.prakruthi.homestay.model.Booking;
+import com.prakruthi.homestay.model.BookingHold;
+import com.prakruthi.homestay.model.DailyPrice;
+import com.prakruthi.homestay.model.EmailOutbox;
+import com.prakruthi.homestay.model.Room;
+import com.prakruthi.homestay.model.User;
+import com.prakruthi.homestay.model.WebhookEvent;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates the indexes declared on the models. Automatic index creation is off by
+ * default in Spring Data MongoDB, so without this the annotations have no effect.
+ */
+@Component
+@Order(0) // Run before anything that queries these collections
+public class MongoIndexInitializer implements CommandLineRunner {
+
+    private static final List<Class<?>> INDEXED_MODELS = List.of(
+        Availability.class,
+        AvailabilityBlock.class,
+        Booking.class,
+        BookingHold.class,
+        DailyPrice.class,
+        EmailOutbox.class,
+        Room.class,
+        User.class,
+        WebhookEvent.class
+    );
+
+    private static final String LEGACY_AVAILABILITY_INDEX = "roomId_date";
+    private static final String UNIQUE_AVAILABILITY_INDEX = "roomId_date_unique";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoMappingContext mappingContext;
+
+    @Override
+    public void run(String... args) {
+        prepareUniqueAvailabilityIndex();
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+
+        for (Class<?> model : INDEXED_MODELS) {
+            IndexOperations indexOps = mongoTemplate.indexOps(model);
+            resolver.resolveIndexFor(model).forEach(indexOps::ensureIndex);
+        }
+        System.out.println("MongoDB indexes verified for " + INDEXED_MODELS.size() + " collections");
+    }
+
+    /**
+     * The (roomId, date) index on availability used to allow duplicates. Before the
+     * unique one is first built, keep only the latest document per room and day and
+     * drop the old index, which has the same keys under another name.
+     */
+    private void prepareUniqueAvailabilityIndex() {
+        IndexOperations indexOps = mongoTemplate.indexOps(Availability.class);
+        List<String> existing = indexOps.getIndexInfo().stream().map(IndexInfo::getName).toList();
+        if (existing.contains(UNIQUE_AVAILABILITY_INDEX)) {
+            return;
+        }
+
+        MongoCollection<Document> availability = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Availability.class));
+        List<Object> duplicates = new ArrayList<>();
+        availability.aggregate(List.of(
+                Aggregates.match(Filters.exists("roomId")),
+                Aggregates.sort(Sorts.descending("updatedAt")),
+                Aggregates.group(new Document("roomId", "$roomId").append("date", "$date"),
+                    Accumulators.push("ids", "$_id"), Accumulators.sum("count", 1)),
+                Aggregates.match(Filters.gt("count", 1))))
+            .allowDiskUse(true)
+            .forEach(group -> {
+                List<?> ids = group.getList("ids", Object.class);
+                duplicates.addAll(ids.subList(1, ids.size()));
+            });
+        if (!duplicates.isEmpty()) {
+            long removed = availability.deleteMany(Filters.in("_id", duplicates)).getDeletedCount();
+            System.out.println("Removed " + removed + " duplicate availability documents");
+        }
+        if (existing.contains(LEGACY_AVAILABILITY_INDEX)) {
+            indexOps.dropIndex(LEGACY_AVAILABILITY_INDEX);
+        }
+    }
+}
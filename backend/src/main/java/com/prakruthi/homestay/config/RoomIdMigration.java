@@ -0,0 +1,77 @@
+package com.prakruthi.homestay.config;
+
+import com.mongodb.DBRef;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One-off backfill of the denormalized roomId field from the room DBRef. Documents
+ * that already have roomId are skipped, so later runs are a single empty query.
+ */
+@Component
+@Order(1) // Run after MongoIndexInitializer, before the availability calendar loads
+public class RoomIdMigration implements CommandLineRunner {
+
+    private static final List<String> COLLECTIONS = List.of("availability", "daily_pricing", "bookings");
+    private static final int BATCH_SIZE = 1000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(String... args) {
+        for (String collection : COLLECTIONS) {
+            long migrated = backfill(mongoTemplate.getCollection(collection));
+            if (migrated > 0) {
+                System.out.println("Backfilled roomId on " + migrated + " documents in " + collection);
+            }
+        }
+    }
+
+    // Uses the driver directly so the room DBRef is read as-is instead of being resolved
+    private long backfill(MongoCollection<Document> collection) {
+        long migrated = 0;
+        List<WriteModel<Document>> batch = new ArrayList<>();
+
+        try (MongoCursor<Document> cursor = collection
+                .find(Filters.and(Filters.exists("roomId", false), Filters.exists("room")))
+                .projection(Projections.include("room"))
+                .batchSize(BATCH_SIZE)
+                .iterator()) {
+            while (cursor.hasNext()) {
+                Document document = cursor.next();
+                if (!(document.get("room") instanceof DBRef room)) {
+                    continue;
+                }
+                batch.add(new UpdateOneModel<>(
+                    Filters.eq("_id", document.get("_id")),
+                    Updates.set("roomId", room.getId().toString())));
+
+                if (batch.size() == BATCH_SIZE) {
+                    migrated += collection.bulkWrite(batch, new BulkWriteOptions().ordered(false)).getModifiedCount();
+                    batch.clear();
+                }
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            migrated += collection.bulkWrite(batch, new BulkWriteOptions().ordered(false)).getModifiedCount();
+        }
+        return migrated;
+    }
+}
@@ -0,0 +1,40 @@
+package com.prakruthi.homestay.config;
+
+import com.mongodb.client.result.UpdateResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Gives documents written before the @Version fields existed a starting version.
+ * Without one, Spring Data treats a loaded document as new and save() tries to insert it.
+ */
+@Component
+@Order(1) // Run before anything saves users or rooms
+public class VersionBackfill implements CommandLineRunner {
+
+    private static final List<String> COLLECTIONS = List.of("users", "rooms");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(String... args) {
+        for (String collection : COLLECTIONS) {
+            UpdateResult result = mongoTemplate.updateMulti(
+                Query.query(Criteria.where("version").exists(false)),
+                new Update().set("version", 0L),
+                collection);
+            if (result.getModifiedCount() > 0) {
+                System.out.println("Backfilled version on " + result.getModifiedCount() + " documents in " + collection);
+            }
+        }
+    }
+}
@@ -4,11 +4,13 @@ import com.prakruthi.homestay.model.User;
 import com.prakruthi.homestay.service.AuthService;
 import com.prakruthi.homestay.service.ResendEmailService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -28,6 +30,8 @@ public class AuthController {
                 "message", "Registration successful",
                 "userId", registeredUser.getId()
             ));
+        } catch (RejectedExecutionException e) {
+            return tooManyRequests();
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of(
                 "error", e.getMessage()
@@ -43,6 +47,8 @@ public class AuthController {
             
             Map<String, Object> response = authService.login(username, password);
             return ResponseEntity.ok(response);
+        } catch (RejectedExecutionException e) {
+            return tooManyRequests();
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of(
                 "error", e.getMessage()
@@ -81,10 +87,17 @@ public class AuthController {
         try {
             String email = request.get("email");
             String resetToken = authService.createPasswordResetToken(email);
-            emailService.sendPasswordReset(email, resetToken);
-            
+            // Same answer whether or not the address has an account, including when sending fails
+            if (resetToken != null) {
+                try {
+                    emailService.sendPasswordReset(email, resetToken);
+                } catch (Exception e) {
+                    System.err.println("Failed to send password reset email: " + e.getMessage());
+                }
+            }
+
             return ResponseEntity.ok(Map.of(
-                "message", "Password reset instructions sent to your email"
+                "message", "If an account uses this email, password reset instructions have been sent to it"
             ));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of(
@@ -103,6 +116,8 @@ public class AuthController {
             return ResponseEntity.ok(Map.of(
                 "message", "Password reset successful"
             ));
+        } catch (RejectedExecutionException e) {
+            return tooManyRequests();
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of(
                 "error", e.getMessage()
@@ -127,10 +142,18 @@ public class AuthController {
             return ResponseEntity.ok(Map.of(
                 "message", "Password changed successfully"
             ));
+        } catch (RejectedExecutionException e) {
+            return tooManyRequests();
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of(
                 "error", e.getMessage()
             ));
         }
     }
+
+    private ResponseEntity<?> tooManyRequests() {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header("Retry-After", "1")
+            .body(Map.of("error", "Too many requests, please retry shortly"));
+    }
 }
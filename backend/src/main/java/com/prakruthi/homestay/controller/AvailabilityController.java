@@ -1,16 +1,22 @@
 package com.prakruthi.homestay.controller;
 
-import com.prakruthi.homestay.model.Availability;
+import com.prakruthi.homestay.model.AvailabilityDay;
+import com.prakruthi.homestay.model.AvailabilityUpdate;
 import com.prakruthi.homestay.model.User;
 import com.prakruthi.homestay.service.AvailabilityService;
+import com.prakruthi.homestay.service.CalendarService;
+import com.prakruthi.homestay.service.RoomCatalog;
+import com.prakruthi.homestay.service.RoomService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
 
@@ -18,17 +24,66 @@ import java.util.Map;
 @RequestMapping("/api")
 public class AvailabilityController {
 
+    private static final int MAX_CALENDAR_ROOMS = 20;
+
     @Autowired
     private AvailabilityService availabilityService;
 
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private CalendarService calendarService;
+
+    @Autowired
+    private RoomCatalog roomCatalog;
+
     @GetMapping("/public/availability")
-    public ResponseEntity<List<Availability>> getPublicAvailability(
+    public ResponseEntity<List<AvailabilityDay>> getPublicAvailability(
             @RequestParam String roomId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
         return ResponseEntity.ok(availabilityService.getAvailability(roomId, startDate, endDate));
     }
 
+    @GetMapping("/public/calendar")
+    public ResponseEntity<?> getPublicCalendar(
+            @RequestParam List<String> roomIds,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth month,
+            @RequestParam(defaultValue = "1") int months,
+            WebRequest webRequest) {
+        if (months < 1 || months > 12) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "error", "months must be between 1 and 12"
+            ));
+        }
+
+        List<String> requestedRooms = roomIds.stream().distinct().toList();
+        if (requestedRooms.size() > MAX_CALENDAR_ROOMS) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "error", "At most " + MAX_CALENDAR_ROOMS + " rooms can be requested at once"
+            ));
+        }
+        List<String> unknownRooms = requestedRooms.stream()
+            .filter(roomId -> roomCatalog.findRoom(roomId).isEmpty())
+            .toList();
+        if (!unknownRooms.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "error", "Unknown rooms: " + String.join(", ", unknownRooms)
+            ));
+        }
+
+        LocalDate startDate = month.atDay(1);
+        LocalDate endDate = month.plusMonths(months - 1).atEndOfMonth();
+        Map<String, Object> calendar = calendarService.getCalendar(requestedRooms, startDate, endDate);
+
+        String etag = calendarService.etagFor(calendar);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(calendar);
+    }
+
     @PostMapping("/admin/availability/set-available")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> setAvailable(
@@ -55,10 +110,13 @@ public class AvailabilityController {
     @PostMapping("/admin/availability/bulk-update")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> bulkUpdate(
-            @RequestBody Map<String, Object> request,
+            @RequestBody List<AvailabilityUpdate> operations,
             @AuthenticationPrincipal User user) {
-        // Implementation for bulk updates
-        return ResponseEntity.ok().build();
+        try {
+            return ResponseEntity.ok(availabilityService.bulkUpdate(operations, user));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     @GetMapping("/rooms/check-availability")
@@ -69,4 +127,17 @@ public class AvailabilityController {
         boolean isAvailable = availabilityService.isRoomAvailable(roomId, startDate, endDate);
         return ResponseEntity.ok(isAvailable);
     }
+
+    @GetMapping("/rooms/search")
+    public ResponseEntity<?> searchAvailableRooms(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "1") int guests) {
+        if (endDate.isBefore(startDate)) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "error", "End date must not be before start date"
+            ));
+        }
+        return ResponseEntity.ok(roomService.searchAvailableRooms(startDate, endDate, guests));
+    }
 }
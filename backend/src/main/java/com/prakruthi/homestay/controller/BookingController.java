@@ -0,0 +1,99 @@
+package com.prakruthi.homestay.controller;
+
+import com.prakruthi.homestay.model.Booking;
+import com.prakruthi.homestay.model.User;
+import com.prakruthi.homestay.service.BookingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/bookings")
+public class BookingController {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @PostMapping
+    public ResponseEntity<?> createBooking(@RequestBody Booking request, @AuthenticationPrincipal User user) {
+        try {
+            return ResponseEntity.ok(bookingService.createBooking(request, user));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "error", e.getMessage()
+            ));
+        }
+    }
+
+    // Every guest's bookings, for staff
+    @GetMapping("/all")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<?> getAllBookings(
+            @RequestParam(required = false) Booking.BookingStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            return ResponseEntity.ok(bookingService.getBookingsPage(status, cursor, limit, includeTotal));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "error", e.getMessage()
+            ));
+        }
+    }
+
+    // The caller's own bookings
+    @GetMapping
+    public ResponseEntity<?> getBookings(
+            @AuthenticationPrincipal User user,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            return ResponseEntity.ok(bookingService.getUserBookingsPage(user, cursor, limit, includeTotal));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "error", e.getMessage()
+            ));
+        }
+    }
+
+    @GetMapping("/{bookingId}")
+    public ResponseEntity<?> getBooking(@PathVariable String bookingId, @AuthenticationPrincipal User user) {
+        Booking booking = bookingService.getBooking(bookingId);
+        if (booking == null || !canAccess(booking, user)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(booking);
+    }
+
+    @DeleteMapping("/{bookingId}/hold")
+    public ResponseEntity<?> releaseHold(@PathVariable String bookingId, @AuthenticationPrincipal User user) {
+        Booking booking = bookingService.getBooking(bookingId);
+        if (booking == null || !canAccess(booking, user)) {
+            return ResponseEntity.notFound().build();
+        }
+        if (booking.getStatus() != Booking.BookingStatus.PENDING) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "error", "No pending hold for this booking"
+            ));
+        }
+        bookingService.releaseBooking(booking, Booking.BookingStatus.CANCELLED, "Released by guest before payment");
+        return ResponseEntity.ok().build();
+    }
+
+    // Bookings are only visible to the guest who made them and to staff who manage them
+    private boolean canAccess(Booking booking, User user) {
+        if (user == null) {
+            return false;
+        }
+        if ("ADMIN".equals(user.getRole()) || "MANAGER".equals(user.getRole())) {
+            return true;
+        }
+        return booking.getUser() != null && user.getId() != null && user.getId().equals(booking.getUser().getId());
+    }
+}
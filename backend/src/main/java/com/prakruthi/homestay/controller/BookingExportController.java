@@ -0,0 +1,102 @@
+package com.prakruthi.homestay.controller;
+
+import com.prakruthi.homestay.service.BookingExportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@RestController
+@RequestMapping("/api/admin/exports")
+public class BookingExportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+    private static final String EXPORT_PERMIT = BookingExportController.class.getName() + ".permit";
+
+    @Autowired
+    private BookingExportService exportService;
+
+    /**
+     * Bookings created in the financial year starting 1 April of {@code financialYear},
+     * or between {@code from} and {@code to} inclusive.
+     */
+    @GetMapping("/bookings")
+    public ResponseEntity<?> exportBookings(
+            @RequestParam(required = false) Integer financialYear,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletRequest request) {
+        BookingExportService.Format exportFormat;
+        try {
+            exportFormat = BookingExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "error", "Format must be ndjson or csv"
+            ));
+        }
+
+        LocalDate start;
+        LocalDate until;
+        if (financialYear != null) {
+            start = LocalDate.of(financialYear, 4, 1);
+            until = start.plusYears(1);
+        } else if (from != null && to != null && !to.isBefore(from)) {
+            start = from;
+            until = to.plusDays(1);
+        } else {
+            return ResponseEntity.badRequest().body(Map.of(
+                "error", "Either financialYear or a from/to date range is required"
+            ));
+        }
+
+        if (!exportService.tryStart()) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", "60")
+                .body(Map.of("error", "Another export is already running, please retry shortly"));
+        }
+
+        // The body may never run (async timeout, client gone before dispatch), so the
+        // permit is also released when the async request completes, whichever comes first
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                exportService.finish();
+            }
+        };
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(EXPORT_PERMIT,
+            new CallableProcessingInterceptor() {
+                @Override
+                public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                    release.run();
+                }
+            });
+
+        StreamingResponseBody body = out -> {
+            try {
+                exportService.export(start, until, exportFormat, out);
+            } finally {
+                release.run();
+            }
+        };
+        String filename = "bookings-" + start + "-to-" + until.minusDays(1) + "." + format.toLowerCase();
+        return ResponseEntity.ok()
+            .contentType(exportFormat == BookingExportService.Format.CSV ? CSV : NDJSON)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+            .body(body);
+    }
+}
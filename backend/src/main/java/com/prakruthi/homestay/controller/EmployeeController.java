@@ -3,12 +3,13 @@ package com.prakruthi.homestay.controller;
 import com.prakruthi.homestay.model.User;
 import com.prakruthi.homestay.service.EmployeeService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/admin/employees")
@@ -19,8 +20,17 @@ public class EmployeeController {
     private EmployeeService employeeService;
 
     @GetMapping
-    public ResponseEntity<List<User>> getAllEmployees() {
-        return ResponseEntity.ok(employeeService.getAllEmployees());
+    public ResponseEntity<?> getEmployees(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            return ResponseEntity.ok(employeeService.getEmployeesPage(cursor, limit, includeTotal));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "error", e.getMessage()
+            ));
+        }
     }
 
     @PostMapping
@@ -51,4 +61,12 @@ public class EmployeeController {
         employeeService.toggleEmployeeStatus(id);
         return ResponseEntity.ok().build();
     }
+
+    // Password hashing runs on a bounded pool that rejects work when it is full
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<?> hashingPoolFull() {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header("Retry-After", "1")
+            .body(Map.of("error", "Too many requests, please retry shortly"));
+    }
 }
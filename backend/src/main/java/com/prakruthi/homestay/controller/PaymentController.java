@@ -1,14 +1,22 @@
 package com.prakruthi.homestay.controller;
 
 import com.prakruthi.homestay.model.Booking;
+import com.prakruthi.homestay.model.EmailOutbox;
+import com.prakruthi.homestay.model.RazorpayOrder;
+import com.prakruthi.homestay.model.RazorpayPayment;
+import com.prakruthi.homestay.model.RazorpayRefund;
 import com.prakruthi.homestay.service.BookingService;
+import com.prakruthi.homestay.service.EmailOutboxService;
+import com.prakruthi.homestay.service.PaymentStatusService;
+import com.prakruthi.homestay.service.PriceIndex;
 import com.prakruthi.homestay.service.RazorpayService;
-import com.prakruthi.homestay.service.ResendEmailService;
 import com.razorpay.RazorpayException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Map;
 
 @RestController
@@ -22,7 +30,10 @@ public class PaymentController {
     private BookingService bookingService;
 
     @Autowired
-    private ResendEmailService emailService;
+    private EmailOutboxService emailOutbox;
+
+    @Autowired
+    private PaymentStatusService paymentStatusService;
 
     @PostMapping("/create-order")
     public ResponseEntity<?> createOrder(@RequestBody Map<String, String> request) {
@@ -36,10 +47,10 @@ public class PaymentController {
                 ));
             }
 
-            Map<String, Object> order = razorpayService.createOrder(booking);
+            RazorpayOrder order = razorpayService.createOrder(booking);
             
             // Update booking with order ID
-            booking.setRazorpayOrderId((String) order.get("orderId"));
+            booking.setRazorpayOrderId(order.orderId());
             bookingService.updateBooking(booking);
 
             return ResponseEntity.ok(order);
@@ -68,13 +79,10 @@ public class PaymentController {
             // Update booking status
             Booking booking = bookingService.getBookingByOrderId(orderId);
             if (booking != null) {
-                booking.setRazorpayPaymentId(paymentId);
-                booking.setStatus(Booking.BookingStatus.CONFIRMED);
-                booking.setPaymentStatus("PAID");
-                bookingService.updateBooking(booking);
+                booking = bookingService.confirmBooking(booking, paymentId);
 
-                // Send confirmation email
-                emailService.sendBookingConfirmation(booking);
+                // Queue the confirmation email; it is sent off the request path
+                emailOutbox.enqueue(booking.getBookingId(), EmailOutbox.Template.BOOKING_CONFIRMATION);
             }
 
             return ResponseEntity.ok(Map.of(
@@ -100,12 +108,23 @@ public class PaymentController {
                 ));
             }
 
-            razorpayService.processRefund(booking.getRazorpayPaymentId(), booking.getTotalAmount());
-            
-            // Update booking status
-            booking.setStatus(Booking.BookingStatus.REFUNDED);
-            booking.setPaymentStatus("REFUNDED");
-            bookingService.updateBooking(booking);
+            RazorpayRefund refund = razorpayService.processRefund(booking.getRazorpayPaymentId(), booking.getTotalAmount());
+            paymentStatusService.invalidate(booking.getRazorpayPaymentId());
+
+            // Recorded under Razorpay's refund id so the refund.processed webhook does not add it again
+            Booking.RefundDetails details = new Booking.RefundDetails();
+            details.setRefundId(refund.refundId());
+            details.setAmount(PriceIndex.fromPaise(refund.amount()));
+            details.setReason(request.get("reason"));
+            details.setProcessedAt(LocalDateTime.now());
+            if (booking.getRefundDetails() == null) {
+                booking.setRefundDetails(new ArrayList<>());
+            }
+            booking.getRefundDetails().add(details);
+
+            // Update booking status and free the dates
+            booking.setPaymentStatus(Booking.PaymentStatus.REFUNDED);
+            bookingService.releaseBooking(booking, Booking.BookingStatus.REFUNDED, request.get("reason"));
 
             return ResponseEntity.ok(Map.of(
                 "message", "Refund processed successfully",
@@ -121,7 +140,7 @@ public class PaymentController {
     @GetMapping("/status/{paymentId}")
     public ResponseEntity<?> getPaymentStatus(@PathVariable String paymentId) {
         try {
-            Map<String, Object> paymentDetails = razorpayService.fetchPaymentDetails(paymentId);
+            RazorpayPayment paymentDetails = paymentStatusService.getPayment(paymentId);
             return ResponseEntity.ok(paymentDetails);
         } catch (RazorpayException e) {
             return ResponseEntity.badRequest().body(Map.of(
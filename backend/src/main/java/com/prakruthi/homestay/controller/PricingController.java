@@ -1,6 +1,7 @@
 package com.prakruthi.homestay.controller;
 
 import com.prakruthi.homestay.model.DailyPrice;
+import com.prakruthi.homestay.model.PriceDay;
 import com.prakruthi.homestay.model.User;
 import com.prakruthi.homestay.service.PricingService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,7 +24,7 @@ public class PricingController {
     private PricingService pricingService;
 
     @GetMapping("/public/pricing")
-    public ResponseEntity<List<DailyPrice>> getPublicPricing(
+    public ResponseEntity<List<PriceDay>> getPublicPricing(
             @RequestParam String roomId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
@@ -0,0 +1,40 @@
+package com.prakruthi.homestay.controller;
+
+import com.prakruthi.homestay.model.ReconciliationReport;
+import com.prakruthi.homestay.service.ReconciliationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/reconciliation")
+public class ReconciliationController {
+
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    // Runs in the background; poll /latest for the report
+    @PostMapping("/run")
+    public ResponseEntity<?> run() {
+        if (!reconciliationService.startReconcile()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                "error", "A reconciliation run is already in progress"
+            ));
+        }
+        return ResponseEntity.accepted().body(Map.of(
+            "message", "Reconciliation started"
+        ));
+    }
+
+    @GetMapping("/latest")
+    public ResponseEntity<ReconciliationReport> getLatestReport() {
+        ReconciliationReport report = reconciliationService.getLatestReport();
+        if (report == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(report);
+    }
+}
@@ -3,13 +3,12 @@ package com.prakruthi.homestay.controller;
 import com.prakruthi.homestay.model.Room;
 import com.prakruthi.homestay.service.RoomService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/rooms")
@@ -53,7 +52,16 @@ public class RoomController {
     }
 
     @GetMapping("/paginated")
-    public ResponseEntity<Page<Room>> getRoomsWithPagination(Pageable pageable) {
-        return ResponseEntity.ok(roomService.getRoomsWithPagination(pageable));
+    public ResponseEntity<?> getRoomsWithPagination(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            return ResponseEntity.ok(roomService.getRoomsWithPagination(cursor, limit, includeTotal));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "error", e.getMessage()
+            ));
+        }
     }
 }
@@ -1,13 +1,23 @@
 package com.prakruthi.homestay.controller;
 
-import com.prakruthi.homestay.service.PaymentService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prakruthi.homestay.service.RazorpayService;
+import com.prakruthi.homestay.service.WebhookService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.Map;
 
 @RestController
@@ -15,44 +25,50 @@ import java.util.Map;
 public class WebhookController {
 
     @Autowired
-    private PaymentService paymentService;
+    private RazorpayService razorpayService;
 
+    @Autowired
+    private WebhookService webhookService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Verifies and records the event, then acknowledges it; the booking changes are
+     * applied in the background. The signature covers the exact bytes Razorpay sent,
+     * so the body is taken raw rather than bound to a map.
+     */
     @PostMapping("/razorpay")
-    public ResponseEntity<?> handleRazorpayWebhook(@RequestBody Map<String, Object> payload) {
-        String event = (String) payload.get("event");
-        
-        switch (event) {
-            case "payment.captured":
-                handlePaymentCaptured(payload);
-                break;
-            case "payment.failed":
-                handlePaymentFailed(payload);
-                break;
-            case "refund.processed":
-                handleRefundProcessed(payload);
-                break;
-            default:
-                // Log unhandled event
-                break;
+    public ResponseEntity<?> handleRazorpayWebhook(
+            @RequestBody String payload,
+            @RequestHeader(value = "X-Razorpay-Signature", required = false) String signature,
+            @RequestHeader(value = "X-Razorpay-Event-Id", required = false) String eventId) {
+        if (!razorpayService.verifyWebhookSignature(payload, signature)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of(
+                "error", "Invalid webhook signature"
+            ));
         }
-        
-        return ResponseEntity.ok().build();
-    }
 
-    private void handlePaymentCaptured(Map<String, Object> payload) {
-        // Update booking status
-        // Send confirmation email
-        // Update inventory
-    }
+        String event;
+        try {
+            JsonNode root = objectMapper.readTree(payload);
+            event = root.path("event").asText();
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "error", "Malformed webhook payload"
+            ));
+        }
 
-    private void handlePaymentFailed(Map<String, Object> payload) {
-        // Update booking status
-        // Send notification
-        // Release inventory if necessary
+        webhookService.receive(eventId != null ? eventId : sha256(payload), event, payload);
+        return ResponseEntity.ok().build();
     }
 
-    private void handleRefundProcessed(Map<String, Object> payload) {
-        // Update refund status
-        // Send notification
+    private static String sha256(String payload) {
+        try {
+            return HexFormat.of().formatHex(
+                MessageDigest.getInstance("SHA-256").digest(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
@@ -3,6 +3,7 @@ package com.prakruthi.homestay.model;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -11,12 +12,16 @@ import java.time.LocalDateTime;
 
 @Data
 @Document(collection = "availability")
+// One document per room and day; documents still waiting for the roomId backfill are left out
+@CompoundIndex(name = "roomId_date_unique", def = "{'roomId': 1, 'date': 1}", unique = true,
+    partialFilter = "{'roomId': {'$exists': true}}")
 public class Availability {
     @Id
     private String id;
     
     @DBRef
     private Room room;
+    private String roomId;
     
     private LocalDate date;
     private boolean isAvailable;
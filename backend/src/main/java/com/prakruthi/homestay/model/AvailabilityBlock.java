@@ -0,0 +1,31 @@
+package com.prakruthi.homestay.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Document(collection = "availability_blocks")
+@CompoundIndex(name = "room_start_end", def = "{'roomId': 1, 'startDate': 1, 'endDate': 1}")
+public class AvailabilityBlock {
+    @Id
+    private String id;
+    private String roomId;
+
+    // Inclusive on both ends
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    private boolean isAvailable;
+    private String reason;
+    private String bookingId;
+    private String updatedBy;
+
+    @LastModifiedDate
+    private LocalDateTime updatedAt;
+}
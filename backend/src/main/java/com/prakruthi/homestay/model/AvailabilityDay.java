@@ -0,0 +1,12 @@
+package com.prakruthi.homestay.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDate;
+
+/**
+ * Read projection of {@link Availability} for public endpoints; only these fields are fetched.
+ * The component keeps the stored field name, but serializes as "available" like the entity did.
+ */
+public record AvailabilityDay(LocalDate date, @JsonProperty("available") boolean isAvailable, String reason) {
+}
@@ -0,0 +1,19 @@
+package com.prakruthi.homestay.model;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * One operation of a bulk availability update. A null roomId applies it to every room.
+ */
+@Data
+public class AvailabilityUpdate {
+    private String roomId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    @JsonAlias("isAvailable")
+    private boolean available;
+    private String reason;
+}
@@ -1,9 +1,13 @@
 package com.prakruthi.homestay.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -14,6 +18,14 @@ import java.util.List;
 
 @Data
 @Document(collection = "bookings")
+@CompoundIndexes({
+    @CompoundIndex(name = "roomId_checkIn_checkOut", def = "{'roomId': 1, 'checkInDate': 1, 'checkOutDate': 1}"),
+    @CompoundIndex(name = "checkIn_status", def = "{'checkInDate': 1, 'status': 1}"),
+    @CompoundIndex(name = "checkOut_status", def = "{'checkOutDate': 1, 'status': 1}"),
+    @CompoundIndex(name = "createdAt_id", def = "{'createdAt': -1, '_id': -1}"),
+    @CompoundIndex(name = "status_createdAt_id", def = "{'status': 1, 'createdAt': -1, '_id': -1}"),
+    @CompoundIndex(name = "user_createdAt_id", def = "{'user': 1, 'createdAt': -1, '_id': -1}")
+})
 public class Booking {
     @Id
     private String id;
@@ -24,6 +36,7 @@ public class Booking {
     
     @DBRef
     private Room room;
+    private String roomId;
     
     private GuestDetails guestDetails;
     private LocalDate checkInDate;
@@ -47,11 +60,23 @@ public class Booking {
     private String cancellationReason;
     private String specialRequests;
     private String notes;
+    private LocalDateTime holdExpiresAt;
+    // A payment was captured after the booking lost its nights; cleared once it is fully refunded
+    @Indexed(sparse = true)
+    private LocalDateTime refundDueAt;
+    private LocalDateTime checkInReminderSentAt;
+    private LocalDateTime checkOutReminderSentAt;
+    // Token of the reminder run that set the matching *SentAt marker
+    @JsonIgnore
+    private String checkInReminderClaim;
+    @JsonIgnore
+    private String checkOutReminderClaim;
     
     @CreatedDate
     private LocalDateTime createdAt;
     
     @LastModifiedDate
+    @Indexed(name = "updatedAt")
     private LocalDateTime updatedAt;
 
     @Data
@@ -87,6 +112,7 @@ public class Booking {
     }
 
     public enum BookingStatus {
+        PENDING,
         CONFIRMED,
         CHECKED_IN,
         CHECKED_OUT,
@@ -97,6 +123,7 @@ public class Booking {
 
     public enum PaymentStatus {
         PAID,
+        FAILED,
         REFUNDED,
         PARTIAL_REFUND
     }
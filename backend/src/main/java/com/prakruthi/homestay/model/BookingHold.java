@@ -0,0 +1,30 @@
+package com.prakruthi.homestay.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * One night of a room claimed by a booking. The unique (roomId, date) index makes a
+ * night claimable by at most one booking across all nodes; expiresAt is cleared once
+ * the booking is paid for.
+ */
+@Data
+@Document(collection = "booking_holds")
+@CompoundIndex(name = "room_date_unique", def = "{'roomId': 1, 'date': 1}", unique = true)
+public class BookingHold {
+    @Id
+    private String id;
+    private String roomId;
+    private LocalDate date;
+    private String bookingId;
+
+    // Expired holds are purged by Mongo; confirmed holds have no expiresAt and are kept
+    @Indexed(name = "expires_at_ttl", expireAfterSeconds = 0)
+    private Instant expiresAt;
+}
@@ -0,0 +1,10 @@
+package com.prakruthi.homestay.model;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. nextCursor is opaque and null on the last
+ * page; total is only filled in when the caller asks for it.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor, Long total) {
+}
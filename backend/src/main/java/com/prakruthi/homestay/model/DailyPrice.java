@@ -3,6 +3,8 @@ package com.prakruthi.homestay.model;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -12,12 +14,17 @@ import java.time.LocalDateTime;
 
 @Data
 @Document(collection = "daily_pricing")
+@CompoundIndexes({
+    @CompoundIndex(name = "roomId_date", def = "{'roomId': 1, 'date': 1}"),
+    @CompoundIndex(name = "roomId_reason_date", def = "{'roomId': 1, 'reason': 1, 'date': 1}")
+})
 public class DailyPrice {
     @Id
     private String id;
     
     @DBRef
     private Room room;
+    private String roomId;
     
     private LocalDate date;
     private BigDecimal price;
@@ -0,0 +1,41 @@
+package com.prakruthi.homestay.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * A transactional email waiting to be sent. The unique (bookingId, template) index
+ * means a booking gets each kind of email at most once, however often it is enqueued.
+ */
+@Data
+@Document(collection = "email_outbox")
+@CompoundIndexes({
+    @CompoundIndex(name = "booking_template_unique", def = "{'bookingId': 1, 'template': 1}", unique = true),
+    @CompoundIndex(name = "status_nextAttemptAt", def = "{'status': 1, 'nextAttemptAt': 1}")
+})
+public class EmailOutbox {
+    @Id
+    private String id;
+    private String bookingId;
+    private Template template;
+    private Status status = Status.PENDING;
+    private int attempts;
+    // When the entry is next due; for SENDING entries, when the claim lapses
+    private Instant nextAttemptAt;
+    private String lastError;
+    private Instant createdAt;
+    private Instant sentAt;
+
+    public enum Template {
+        BOOKING_CONFIRMATION
+    }
+
+    public enum Status {
+        PENDING, SENDING, SENT, FAILED
+    }
+}
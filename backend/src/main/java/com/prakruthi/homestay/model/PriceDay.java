@@ -0,0 +1,10 @@
+package com.prakruthi.homestay.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Read projection of {@link DailyPrice} for public endpoints; only these fields are fetched.
+ */
+public record PriceDay(LocalDate date, BigDecimal price, DailyPrice.PriceReason reason) {
+}
@@ -0,0 +1,7 @@
+package com.prakruthi.homestay.model;
+
+/**
+ * A Razorpay order as handed to the checkout page. Amounts are in paise.
+ */
+public record RazorpayOrder(String orderId, long amount, String currency, String keyId) {
+}
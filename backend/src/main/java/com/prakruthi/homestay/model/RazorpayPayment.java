@@ -0,0 +1,8 @@
+package com.prakruthi.homestay.model;
+
+/**
+ * A payment as reported by Razorpay. Amounts are in paise.
+ */
+public record RazorpayPayment(String id, String orderId, long amount, String status, String method,
+                              String email, String contact) {
+}
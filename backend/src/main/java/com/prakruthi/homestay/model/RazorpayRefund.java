@@ -0,0 +1,7 @@
+package com.prakruthi.homestay.model;
+
+/**
+ * A refund created through Razorpay. Amounts are in paise.
+ */
+public record RazorpayRefund(String refundId, String paymentId, long amount, String status) {
+}
@@ -0,0 +1,53 @@
+package com.prakruthi.homestay.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One reconciliation run over bookings updated in (from, until]. The latest run's
+ * until is the watermark the next run starts from.
+ */
+@Data
+@Document(collection = "reconciliation_reports")
+public class ReconciliationReport {
+    @Id
+    private String id;
+    private LocalDateTime from;
+    private LocalDateTime until;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private int scanned;
+    private int fixed;
+    private int errors;
+    private List<Discrepancy> discrepancies = new ArrayList<>();
+    // Bookings whose order could not be fetched; the next run checks them again
+    private List<String> retryBookingIds = new ArrayList<>();
+
+    @Data
+    public static class Discrepancy {
+        private String bookingId;
+        private String orderId;
+        private String paymentId;
+        private Issue issue;
+        private String detail;
+        private boolean fixed;
+    }
+
+    public enum Issue {
+        // Razorpay captured a payment but the booking is not confirmed
+        CAPTURED_NOT_CONFIRMED,
+        // The booking is paid for but Razorpay has no captured payment on its order
+        CONFIRMED_WITHOUT_CAPTURE,
+        // The booking records a different payment than the one Razorpay captured
+        PAYMENT_ID_MISMATCH,
+        // Razorpay could not be queried for the booking's order
+        FETCH_FAILED,
+        // A payment was captured after the booking lost its nights and is not refunded yet
+        REFUND_DUE
+    }
+}
@@ -1,9 +1,14 @@
 package com.prakruthi.homestay.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -15,11 +20,13 @@ import java.util.List;
 
 @Data
 @Document(collection = "users")
+@CompoundIndex(name = "role_createdAt_id", def = "{'role': 1, 'createdAt': -1, '_id': -1}")
 public class User implements UserDetails {
     @Id
     private String id;
     private String username;
     private String email;
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
     private String role;
     private String phoneNumber;
@@ -32,8 +39,20 @@ public class User implements UserDetails {
     
     @LastModifiedDate
     private LocalDateTime updatedAt;
+
+    @Version
+    private Long version;
     
     private LocalDateTime lastLogin;
+
+    // SHA-256 of the emailed reset token; the token itself is never stored
+    @JsonIgnore
+    @Indexed(name = "passwordResetTokenHash", sparse = true)
+    private String passwordResetTokenHash;
+
+    @JsonIgnore
+    private LocalDateTime passwordResetExpiresAt;
+
     private boolean enabled = true;
 
     @Override
@@ -0,0 +1,34 @@
+package com.prakruthi.homestay.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * A Razorpay webhook delivery, keyed by Razorpay's event id. Razorpay redelivers an
+ * event until it is acknowledged, so the id doubles as the idempotency key: a
+ * redelivery fails the insert and is acknowledged without being processed again.
+ */
+@Data
+@Document(collection = "webhook_events")
+@CompoundIndex(name = "status_nextAttemptAt", def = "{'status': 1, 'nextAttemptAt': 1}")
+public class WebhookEvent {
+    @Id
+    private String id;
+    private String event;
+    private String payload;
+    private Status status = Status.RECEIVED;
+    private int attempts;
+    // When the event is next due; for PROCESSING events, when the claim lapses
+    private Instant nextAttemptAt;
+    private String lastError;
+    private Instant receivedAt;
+    private Instant processedAt;
+
+    public enum Status {
+        RECEIVED, PROCESSING, PROCESSED, FAILED
+    }
+}
@@ -0,0 +1,16 @@
+package com.prakruthi.homestay.repository;
+
+import com.prakruthi.homestay.model.AvailabilityBlock;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface AvailabilityBlockRepository extends MongoRepository<AvailabilityBlock, String> {
+    @Query(value = "{'roomId': ?0, 'startDate': {'$lte': ?2}, 'endDate': {'$gte': ?1}}", sort = "{'startDate': 1}")
+    List<AvailabilityBlock> findOverlapping(String roomId, LocalDate startDate, LocalDate endDate);
+
+    @Query(value = "{'startDate': {'$lte': ?1}, 'endDate': {'$gte': ?0}, 'isAvailable': true}")
+    List<AvailabilityBlock> findAvailableOverlapping(LocalDate startDate, LocalDate endDate);
+}
@@ -1,16 +1,26 @@
 package com.prakruthi.homestay.repository;
 
 import com.prakruthi.homestay.model.Availability;
+import com.prakruthi.homestay.model.AvailabilityDay;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface AvailabilityRepository extends MongoRepository<Availability, String> {
     List<Availability> findByRoomIdAndDateBetween(String roomId, LocalDate startDate, LocalDate endDate);
     
-    @Query("{'room._id': ?0, 'date': {'$gte': ?1, '$lte': ?2}, 'isAvailable': true}")
+    List<AvailabilityDay> findDaysByRoomIdAndDateBetweenOrderByDateAsc(String roomId, LocalDate startDate, LocalDate endDate);
+    
+    @Query(value = "{'date': {'$gte': ?0, '$lte': ?1}, 'isAvailable': true}", fields = "{'roomId': 1, 'date': 1}")
+    List<Availability> findAvailableRoomDays(LocalDate startDate, LocalDate endDate);
+
+    @Query(value = "{'roomId': {'$in': ?0}, 'date': {'$gte': ?1, '$lte': ?2}, 'isAvailable': true}", fields = "{'roomId': 1, 'date': 1}")
+    List<Availability> findAvailableRoomDays(Collection<String> roomIds, LocalDate startDate, LocalDate endDate);
+    
+    @Query("{'roomId': ?0, 'date': {'$gte': ?1, '$lte': ?2}, 'isAvailable': true}")
     List<Availability> findAvailableDates(String roomId, LocalDate startDate, LocalDate endDate);
     
     void deleteByRoomIdAndDateBetween(String roomId, LocalDate startDate, LocalDate endDate);
@@ -0,0 +1,17 @@
+package com.prakruthi.homestay.repository;
+
+import com.prakruthi.homestay.model.BookingHold;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+public interface BookingHoldRepository extends MongoRepository<BookingHold, String> {
+    long countByBookingId(String bookingId);
+
+    void deleteByBookingId(String bookingId);
+
+    @Query(value = "{'roomId': ?0, 'date': {'$gte': ?1, '$lte': ?2}, 'expiresAt': {'$lt': ?3}}", delete = true)
+    long deleteExpired(String roomId, LocalDate startDate, LocalDate endDate, Instant now);
+}
@@ -1,24 +1,67 @@
 package com.prakruthi.homestay.repository;
 
 import com.prakruthi.homestay.model.Booking;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends MongoRepository<Booking, String> {
-    List<Booking> findByUserId(String userId);
+    Optional<Booking> findByBookingId(String bookingId);
+    Optional<Booking> findByRazorpayOrderId(String razorpayOrderId);
+    Optional<Booking> findByRazorpayPaymentId(String razorpayPaymentId);
     List<Booking> findByRoomId(String roomId);
     
     @Query("{'checkInDate': {'$lte': ?1}, 'checkOutDate': {'$gte': ?0}, 'status': {'$nin': ['CANCELLED', 'REFUNDED']}}")
     List<Booking> findOverlappingBookings(LocalDate startDate, LocalDate endDate);
     
-    List<Booking> findByStatus(Booking.BookingStatus status);
+    List<Booking> findByStatusAndHoldExpiresAtBefore(Booking.BookingStatus status, LocalDateTime time);
     
     @Query("{'checkInDate': {'$eq': ?0}}")
     List<Booking> findByCheckInDate(LocalDate date);
     
     @Query("{'checkOutDate': {'$eq': ?0}}")
     List<Booking> findByCheckOutDate(LocalDate date);
+
+    // Cursor-backed; only the fields the reminder emails need, so room and user DBRefs are not resolved
+    @Query(value = "{'checkInDate': ?0, 'status': 'CONFIRMED', 'checkInReminderSentAt': null}",
+           fields = "{'bookingId': 1, 'guestDetails': 1, 'checkInDate': 1, 'checkOutDate': 1}")
+    Stream<Booking> streamCheckInReminders(LocalDate checkInDate);
+
+    @Query(value = "{'checkOutDate': ?0, 'status': {'$in': ['CONFIRMED', 'CHECKED_IN']}, 'checkOutReminderSentAt': null}",
+           fields = "{'bookingId': 1, 'guestDetails': 1, 'checkInDate': 1, 'checkOutDate': 1}")
+    Stream<Booking> streamCheckOutReminders(LocalDate checkOutDate);
+
+    @Query(value = "{'razorpayOrderId': {'$ne': null}, 'updatedAt': {'$gt': ?0, '$lte': ?1}}",
+           fields = "{'bookingId': 1, 'status': 1, 'paymentStatus': 1, 'razorpayOrderId': 1, 'razorpayPaymentId': 1, 'refundDueAt': 1}",
+           sort = "{'updatedAt': 1}")
+    Stream<Booking> streamPaymentChanges(LocalDateTime after, LocalDateTime until);
+
+    // The same projection for bookings last updated at or before the given time
+    @Query(value = "{'bookingId': {'$in': ?0}, 'razorpayOrderId': {'$ne': null}, 'updatedAt': {'$lte': ?1}}",
+           fields = "{'bookingId': 1, 'status': 1, 'paymentStatus': 1, 'razorpayOrderId': 1, 'razorpayPaymentId': 1, 'refundDueAt': 1}")
+    Stream<Booking> streamPaymentChecks(Collection<String> bookingIds, LocalDateTime updatedUntil);
+
+    // Served by the sparse refundDueAt index; only bookings still waiting for a refund carry the field
+    @Query(value = "{'refundDueAt': {'$ne': null}}",
+           fields = "{'bookingId': 1, 'status': 1, 'razorpayOrderId': 1, 'razorpayPaymentId': 1, 'refundDueAt': 1}",
+           sort = "{'refundDueAt': 1}")
+    Stream<Booking> streamRefundsDue();
+
+    // Accounting export: no DBRefs or ID proof images, fetched in batches as the response is written
+    @Meta(cursorBatchSize = 500)
+    @Query(value = "{'createdAt': {'$gte': ?0, '$lt': ?1}}",
+           fields = "{'bookingId': 1, 'roomId': 1, 'guestDetails.name': 1, 'guestDetails.email': 1, "
+               + "'guestDetails.phone': 1, 'guestDetails.numberOfGuests': 1, 'checkInDate': 1, 'checkOutDate': 1, "
+               + "'status': 1, 'totalAmount': 1, 'priceBreakdown': 1, 'razorpayOrderId': 1, 'razorpayPaymentId': 1, "
+               + "'paymentStatus': 1, 'refundDetails.refundId': 1, 'refundDetails.amount': 1, "
+               + "'refundDetails.reason': 1, 'refundDetails.processedAt': 1, 'cancellationReason': 1, 'createdAt': 1}",
+           sort = "{'createdAt': 1, '_id': 1}")
+    Stream<Booking> streamForExport(LocalDateTime from, LocalDateTime until);
 }
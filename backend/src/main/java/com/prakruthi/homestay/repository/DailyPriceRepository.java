@@ -1,10 +1,12 @@
 package com.prakruthi.homestay.repository;
 
 import com.prakruthi.homestay.model.DailyPrice;
+import com.prakruthi.homestay.model.PriceDay;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,7 +15,14 @@ public interface DailyPriceRepository extends MongoRepository<DailyPrice, String
     
     List<DailyPrice> findByRoomIdAndDateBetween(String roomId, LocalDate startDate, LocalDate endDate);
     
-    @Query("{'room._id': ?0, 'date': {'$gte': ?1, '$lte': ?2}}")
+    List<PriceDay> findDaysByRoomIdAndDateBetweenOrderByDateAsc(String roomId, LocalDate startDate, LocalDate endDate);
+    
+    List<DailyPrice> findByRoomIdAndReasonOrderByDateAsc(String roomId, DailyPrice.PriceReason reason);
+    
+    @Query(value = "{'roomId': {'$in': ?0}, 'date': {'$gte': ?1, '$lte': ?2}}", fields = "{'roomId': 1, 'date': 1, 'price': 1}")
+    List<DailyPrice> findByRoomIdInAndDateBetween(Collection<String> roomIds, LocalDate startDate, LocalDate endDate);
+    
+    @Query("{'roomId': ?0, 'date': {'$gte': ?1, '$lte': ?2}}")
     List<DailyPrice> findPricesForDateRange(String roomId, LocalDate startDate, LocalDate endDate);
     
     void deleteByRoomIdAndDateBetween(String roomId, LocalDate startDate, LocalDate endDate);
@@ -0,0 +1,83 @@
+package com.prakruthi.homestay.repository;
+
+import com.prakruthi.homestay.model.CursorPage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Newest-first keyset pagination on (createdAt, _id). The cursor encodes the last
+ * item's key, so every page is an index range scan no matter how deep it is, and
+ * no count query runs unless a total is asked for.
+ */
+@Repository
+public class KeysetPaginator {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private record Key(LocalDateTime createdAt, String id) {
+    }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoMappingContext mappingContext;
+
+    public <T> CursorPage<T> page(Class<T> type, Criteria filter, String cursor, Integer limit, boolean includeTotal) {
+        int pageSize = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        Query query = new Query();
+        if (cursor != null && !cursor.isEmpty()) {
+            Key key = decode(cursor);
+            Criteria after = new Criteria().orOperator(
+                Criteria.where("createdAt").lt(key.createdAt()),
+                Criteria.where("createdAt").is(key.createdAt()).and("_id").lt(key.id()));
+            query.addCriteria(filter != null ? new Criteria().andOperator(filter, after) : after);
+        } else if (filter != null) {
+            query.addCriteria(filter);
+        }
+        query.with(Sort.by(Sort.Direction.DESC, "createdAt", "_id")).limit(pageSize + 1);
+
+        List<T> items = mongoTemplate.find(query, type);
+        String nextCursor = null;
+        if (items.size() > pageSize) {
+            items = items.subList(0, pageSize);
+            nextCursor = encode(items.get(pageSize - 1));
+        }
+
+        Long total = includeTotal ? mongoTemplate.count(filter != null ? Query.query(filter) : new Query(), type) : null;
+        return new CursorPage<>(items, nextCursor, total);
+    }
+
+    private String encode(Object item) {
+        MongoPersistentEntity<?> entity = mappingContext.getRequiredPersistentEntity(item.getClass());
+        PersistentPropertyAccessor<Object> accessor = entity.getPropertyAccessor(item);
+        Object createdAt = accessor.getProperty(entity.getRequiredPersistentProperty("createdAt"));
+        Object id = accessor.getProperty(entity.getRequiredIdProperty());
+
+        String key = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Key decode(String cursor) {
+        try {
+            String[] key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 2);
+            return new Key(LocalDateTime.parse(key[0]), key[1]);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.prakruthi.homestay.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Single round-trip partial updates: only the given fields are written, and the
+ * updated document is returned. updatedAt is stamped and, on models with a @Version
+ * field, the version is bumped so concurrent full saves and guarded updates see the change.
+ */
+@Repository
+public class PartialUpdateRepository {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoMappingContext mappingContext;
+
+    /**
+     * Updates the document with the given id. If expectedVersion is non-null, the update
+     * only applies while the stored version still matches, and a mismatch throws
+     * OptimisticLockingFailureException. Returns null if there is no such document.
+     */
+    public <T> T updateById(Class<T> type, String id, Long expectedVersion, UpdateDefinition update) {
+        Criteria criteria = Criteria.where("_id").is(id);
+        String versionField = versionField(type);
+        if (expectedVersion != null && versionField != null) {
+            criteria.and(versionField).is(expectedVersion);
+        }
+
+        T updated = updateFirst(type, criteria, update);
+        if (updated == null && expectedVersion != null && versionField != null
+                && mongoTemplate.exists(Query.query(Criteria.where("_id").is(id)), type)) {
+            throw new OptimisticLockingFailureException(
+                type.getSimpleName() + " " + id + " was modified by someone else; reload and try again");
+        }
+        return updated;
+    }
+
+    /**
+     * Updates the first document matching the criteria and returns it, or null if none matched.
+     * Extra criteria make the update conditional, e.g. on the current status.
+     */
+    public <T> T updateFirst(Class<T> type, Criteria criteria, UpdateDefinition update) {
+        return mongoTemplate.findAndModify(Query.query(criteria), stamp(type, update),
+            FindAndModifyOptions.options().returnNew(true), type);
+    }
+
+    private UpdateDefinition stamp(Class<?> type, UpdateDefinition update) {
+        MongoPersistentEntity<?> entity = mappingContext.getRequiredPersistentEntity(type);
+        boolean hasUpdatedAt = entity.getPersistentProperty("updatedAt") != null;
+        String versionField = versionField(type);
+
+        if (update instanceof Update classic) {
+            if (hasUpdatedAt) {
+                classic.set("updatedAt", LocalDateTime.now());
+            }
+            if (versionField != null) {
+                classic.inc(versionField, 1);
+            }
+        } else if (update instanceof AggregationUpdate pipeline) {
+            if (hasUpdatedAt) {
+                pipeline.set("updatedAt").toValue(LocalDateTime.now());
+            }
+            if (versionField != null) {
+                pipeline.set(versionField).toValue(ArithmeticOperators.Add.valueOf(versionField).add(1));
+            }
+        }
+        return update;
+    }
+
+    private String versionField(Class<?> type) {
+        MongoPersistentEntity<?> entity = mappingContext.getRequiredPersistentEntity(type);
+        return entity.hasVersionProperty() ? entity.getRequiredVersionProperty().getFieldName() : null;
+    }
+}
@@ -0,0 +1,12 @@
+package com.prakruthi.homestay.repository;
+
+import com.prakruthi.homestay.model.ReconciliationReport;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ReconciliationReportRepository extends MongoRepository<ReconciliationReport, String> {
+    Optional<ReconciliationReport> findFirstByOrderByUntilDesc();
+}
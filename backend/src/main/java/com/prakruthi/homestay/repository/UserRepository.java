@@ -11,7 +11,6 @@ public interface UserRepository extends MongoRepository<User, String> {
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
-    List<User> findByRoleIn(List<String> roles);
     List<User> findByRole(String role);
     long countByRole(String role);
 }
@@ -0,0 +1,9 @@
+package com.prakruthi.homestay.repository;
+
+import com.prakruthi.homestay.model.WebhookEvent;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface WebhookEventRepository extends MongoRepository<WebhookEvent, String> {
+}
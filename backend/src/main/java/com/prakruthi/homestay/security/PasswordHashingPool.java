@@ -0,0 +1,56 @@
+package com.prakruthi.homestay.security;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt work on a small dedicated pool so a burst of logins cannot take every
+ * CPU from the rest of the API. When the pool and its queue are full, callers get a
+ * RejectedExecutionException straight away, which the controllers turn into a 429.
+ */
+@Component
+public class PasswordHashingPool {
+
+    private final ThreadPoolExecutor executor;
+
+    public PasswordHashingPool(
+            @Value("${app.security.hashing.threads:2}") int threads,
+            @Value("${app.security.hashing.queue-size:16}") int queueSize) {
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueSize), runnable -> {
+                Thread thread = new Thread(runnable, "password-hashing");
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    public <T> T run(Supplier<T> work) {
+        Future<T> future = executor.submit(work::get);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,76 @@
+package com.prakruthi.homestay.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-evicting cache of authenticated principals keyed by username and token
+ * issue time, so the JWT filter does not reload the user on every request.
+ */
+@Component
+public class UserPrincipalCache {
+
+    private record Entry(String username, UserDetails user, long expiresAt) {
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    // Bumped by evict, so a load that raced with a user write is not cached
+    private final Map<String, Long> generations = new ConcurrentHashMap<>();
+
+    @Value("${app.security.principal-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${app.security.principal-cache.max-size:1000}")
+    private int maxSize;
+
+    public UserDetails get(String username, Date issuedAt, Function<String, UserDetails> loader) {
+        String key = username + ":" + (issuedAt != null ? issuedAt.getTime() : 0);
+        long now = System.currentTimeMillis();
+
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt() > now) {
+            return entry.user();
+        }
+
+        long generation = generations.getOrDefault(username, 0L);
+        UserDetails user = loader.apply(username);
+        if (generations.getOrDefault(username, 0L) != generation) {
+            return user;
+        }
+        if (entries.size() >= maxSize) {
+            evictExpiredOrOldest(now);
+        }
+        Entry loaded = new Entry(username, user, now + ttlSeconds * 1000);
+        entries.put(key, loaded);
+        // An evict between the check and the put has already swept the map; take the entry back out
+        if (generations.getOrDefault(username, 0L) != generation) {
+            entries.remove(key, loaded);
+        }
+        return user;
+    }
+
+    /**
+     * Must be called after every write to a user that affects authentication.
+     */
+    public void evict(String username) {
+        generations.merge(username, 1L, Long::sum);
+        entries.values().removeIf(entry -> entry.username().equals(username));
+    }
+
+    private void evictExpiredOrOldest(long now) {
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+        if (entries.size() >= maxSize) {
+            entries.entrySet().stream()
+                .min(Comparator.comparingLong(e -> e.getValue().expiresAt()))
+                .ifPresent(oldest -> entries.remove(oldest.getKey()));
+        }
+    }
+}
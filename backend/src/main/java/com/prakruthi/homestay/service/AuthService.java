@@ -1,9 +1,18 @@
 package com.prakruthi.homestay.service;
 
 import com.prakruthi.homestay.model.User;
+import com.prakruthi.homestay.repository.PartialUpdateRepository;
 import com.prakruthi.homestay.repository.UserRepository;
 import com.prakruthi.homestay.security.JwtTokenProvider;
+import com.prakruthi.homestay.security.PasswordHashingPool;
+import com.prakruthi.homestay.security.UserPrincipalCache;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -11,7 +20,17 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class AuthService {
@@ -28,19 +47,63 @@ public class AuthService {
     @Autowired
     private JwtTokenProvider tokenProvider;
 
-    public String login(String username, String password) {
-        Authentication authentication = authenticationManager.authenticate(
+    @Autowired
+    private PasswordHashingPool hashingPool;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private PartialUpdateRepository partialUpdates;
+
+    @Autowired
+    private UserPrincipalCache principalCache;
+
+    @Value("${app.security.password-reset.ttl-minutes:60}")
+    private long passwordResetTtlMinutes;
+
+    private final SecureRandom random = new SecureRandom();
+
+    // One background writer for lastLogin stamps; when it falls behind, stamps are dropped
+    private final ThreadPoolExecutor lastLoginWriter;
+
+    public AuthService(@Value("${app.security.last-login.queue-size:1000}") int queueSize) {
+        this.lastLoginWriter = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueSize), runnable -> {
+                Thread thread = new Thread(runnable, "last-login");
+                thread.setDaemon(true);
+                return thread;
+            }, (runnable, executor) -> System.err.println("Dropped lastLogin update: writer queue is full"));
+    }
+
+    public Map<String, Object> login(String username, String password) {
+        // BCrypt runs on the hashing pool; throws RejectedExecutionException when it is full
+        Authentication authentication = hashingPool.run(() -> authenticationManager.authenticate(
             new UsernamePasswordAuthenticationToken(username, password)
-        );
+        ));
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        
-        User user = userRepository.findByUsername(username)
-            .orElseThrow(() -> new RuntimeException("User not found"));
-        user.setLastLogin(LocalDateTime.now());
-        userRepository.save(user);
 
-        return tokenProvider.generateToken(authentication);
+        User user = (User) authentication.getPrincipal();
+        LocalDateTime now = LocalDateTime.now();
+        // Nothing waits on lastLogin, so stamp it without holding up the response
+        lastLoginWriter.execute(() -> {
+            try {
+                mongoTemplate.updateFirst(
+                    Query.query(Criteria.where("_id").is(user.getId())),
+                    new Update().set("lastLogin", now),
+                    User.class);
+            } catch (RuntimeException e) {
+                System.err.println("Failed to record lastLogin for " + user.getUsername() + ": " + e.getMessage());
+            }
+        });
+
+        return Map.of(
+            "token", tokenProvider.generateToken(authentication),
+            "tokenType", "Bearer",
+            "username", user.getUsername(),
+            "role", user.getRole()
+        );
     }
 
     public User register(User user) {
@@ -52,7 +115,8 @@ public class AuthService {
             throw new RuntimeException("Email is already registered");
         }
 
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        String rawPassword = user.getPassword();
+        user.setPassword(hashingPool.run(() -> passwordEncoder.encode(rawPassword)));
         user.setRole(user.getRole() == null ? "USER" : user.getRole());
         user.setEnabled(true);
         user.setCreatedAt(LocalDateTime.now());
@@ -60,4 +124,104 @@ public class AuthService {
 
         return userRepository.save(user);
     }
+
+    public User getCurrentUser(String username) {
+        return userRepository.findByUsername(username)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    public User updateProfile(String username, Map<String, String> updates) {
+        Update update = new Update();
+        for (String field : new String[] { "fullName", "email", "phoneNumber" }) {
+            if (updates.containsKey(field)) {
+                update.set(field, updates.get(field));
+            }
+        }
+        String email = updates.get("email");
+        if (email != null && userRepository.findByEmail(email)
+                .filter(other -> !other.getUsername().equals(username)).isPresent()) {
+            throw new RuntimeException("Email is already registered");
+        }
+
+        User user = partialUpdates.updateFirst(User.class, Criteria.where("username").is(username), update);
+        if (user == null) {
+            throw new RuntimeException("User not found");
+        }
+        principalCache.evict(username);
+        return user;
+    }
+
+    public void changePassword(String username, String currentPassword, String newPassword) {
+        User user = getCurrentUser(username);
+        String hash = hashingPool.run(() -> passwordEncoder.matches(currentPassword, user.getPassword())
+            ? passwordEncoder.encode(newPassword) : null);
+        if (hash == null) {
+            throw new RuntimeException("Current password is incorrect");
+        }
+
+        partialUpdates.updateById(User.class, user.getId(), null, new Update().set("password", hash));
+        principalCache.evict(username);
+    }
+
+    /**
+     * Returns the token to email, or null when no account uses the address. Callers
+     * must answer both cases the same way so the endpoint does not reveal accounts.
+     */
+    public String createPasswordResetToken(String email) {
+        User user = email != null ? userRepository.findByEmail(email).orElse(null) : null;
+        if (user == null) {
+            return null;
+        }
+
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        partialUpdates.updateById(User.class, user.getId(), null, new Update()
+            .set("passwordResetTokenHash", sha256(token))
+            .set("passwordResetExpiresAt", LocalDateTime.now().plusMinutes(passwordResetTtlMinutes)));
+        return token;
+    }
+
+    public void resetPassword(String token, String newPassword) {
+        if (token == null || newPassword == null || newPassword.isEmpty()) {
+            throw new RuntimeException("Invalid or expired reset token");
+        }
+
+        // Check the token before hashing, so guessed tokens never reach the hashing pool
+        String tokenHash = sha256(token);
+        Criteria validToken = Criteria.where("passwordResetTokenHash").is(tokenHash)
+            .and("passwordResetExpiresAt").gt(LocalDateTime.now());
+        if (!mongoTemplate.exists(Query.query(validToken), User.class)) {
+            throw new RuntimeException("Invalid or expired reset token");
+        }
+        String hash = hashingPool.run(() -> passwordEncoder.encode(newPassword));
+
+        // Matching and clearing the token in one update makes it single-use
+        User user = partialUpdates.updateFirst(User.class,
+            Criteria.where("passwordResetTokenHash").is(tokenHash)
+                .and("passwordResetExpiresAt").gt(LocalDateTime.now()),
+            new Update()
+                .set("password", hash)
+                .unset("passwordResetTokenHash")
+                .unset("passwordResetExpiresAt"));
+        if (user == null) {
+            throw new RuntimeException("Invalid or expired reset token");
+        }
+        principalCache.evict(user.getUsername());
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(
+                MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lastLoginWriter.shutdown();
+    }
 }
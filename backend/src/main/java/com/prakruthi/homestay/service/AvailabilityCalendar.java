@@ -0,0 +1,181 @@
+package com.prakruthi.homestay.service;
+
+import com.prakruthi.homestay.model.Availability;
+import com.prakruthi.homestay.model.AvailabilityBlock;
+import com.prakruthi.homestay.repository.AvailabilityBlockRepository;
+import com.prakruthi.homestay.repository.AvailabilityRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of room availability over the booking horizon, one bit per day
+ * (set = available). Reads are lock-free; writes replace the room's bitset. Writes
+ * made on other nodes are picked up by a periodic reload, so booking creation checks
+ * storage again under the room lock rather than trusting this view alone.
+ */
+@Component
+@Order(3) // Run after DefaultRoomConfig
+public class AvailabilityCalendar implements CommandLineRunner {
+
+    @Autowired
+    private AvailabilityRepository availabilityRepository;
+
+    @Autowired
+    private AvailabilityBlockRepository blockRepository;
+
+    @Value("${app.availability.storage:daily}")
+    private String storageMode;
+
+    private final int horizonDays;
+
+    // The horizon start and the bitsets indexed from it are published together
+    private record Snapshot(LocalDate start, Map<String, BitSet> rooms) {
+    }
+
+    private volatile Snapshot snapshot;
+
+    public AvailabilityCalendar(
+            @Value("${app.booking.max-advance-days}") int maxAdvanceDays,
+            @Value("${app.villa.max-stay}") int maxStay) {
+        // A stay may start on the last bookable day and run for max-stay nights
+        this.horizonDays = maxAdvanceDays + maxStay + 1;
+    }
+
+    @Override
+    public void run(String... args) {
+        reload();
+    }
+
+    public synchronized void reload() {
+        LocalDate start = LocalDate.now();
+        LocalDate end = start.plusDays(horizonDays - 1);
+        Map<String, BitSet> loaded = new ConcurrentHashMap<>();
+
+        if ("interval".equalsIgnoreCase(storageMode)) {
+            for (AvailabilityBlock block : blockRepository.findAvailableOverlapping(start, end)) {
+                LocalDate from = block.getStartDate().isBefore(start) ? start : block.getStartDate();
+                LocalDate to = block.getEndDate().isAfter(end) ? end : block.getEndDate();
+                loaded.computeIfAbsent(block.getRoomId(), id -> new BitSet(horizonDays))
+                    .set((int) ChronoUnit.DAYS.between(start, from), (int) ChronoUnit.DAYS.between(start, to) + 1);
+            }
+        } else {
+            for (Availability availability : availabilityRepository.findAvailableRoomDays(start, end)) {
+                int index = (int) ChronoUnit.DAYS.between(start, availability.getDate());
+                loaded.computeIfAbsent(availability.getRoomId(), id -> new BitSet(horizonDays)).set(index);
+            }
+        }
+
+        this.snapshot = new Snapshot(start, loaded);
+    }
+
+    @Scheduled(fixedDelayString = "${app.availability.calendar.reload-ms:30000}",
+               initialDelayString = "${app.availability.calendar.reload-ms:30000}")
+    public void reloadPeriodically() {
+        if (snapshot != null) {
+            reload();
+        }
+    }
+
+    /**
+     * Returns whether the calendar can answer for the inclusive range without going to the database.
+     */
+    public boolean covers(LocalDate startDate, LocalDate endDate) {
+        rollOverIfNeeded();
+        Snapshot current = snapshot;
+        return current != null
+            && !startDate.isBefore(current.start())
+            && endDate.isBefore(current.start().plusDays(horizonDays));
+    }
+
+    public boolean isAvailable(String roomId, LocalDate startDate, LocalDate endDate) {
+        Snapshot current = snapshot;
+        BitSet days = current.rooms().get(roomId);
+        // The horizon may have rolled over since the caller checked covers()
+        if (days == null || endDate.isBefore(startDate) || startDate.isBefore(current.start())) {
+            return false;
+        }
+        int from = indexOf(current, startDate);
+        int to = indexOf(current, endDate) + 1;
+        return days.nextClearBit(from) >= to;
+    }
+
+    /**
+     * Availability of the inclusive range, bit 0 being startDate. Callers must check {@link #covers} first.
+     */
+    public BitSet slice(String roomId, LocalDate startDate, LocalDate endDate) {
+        Snapshot current = snapshot;
+        BitSet days = current.rooms().get(roomId);
+        if (days == null || endDate.isBefore(startDate) || startDate.isBefore(current.start())) {
+            return new BitSet();
+        }
+        return days.get(indexOf(current, startDate), indexOf(current, endDate) + 1);
+    }
+
+    public synchronized void update(String roomId, LocalDate startDate, LocalDate endDate, boolean isAvailable) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        LocalDate start = current.start();
+        LocalDate horizonEnd = start.plusDays(horizonDays - 1);
+        LocalDate from = startDate.isBefore(start) ? start : startDate;
+        LocalDate to = endDate.isAfter(horizonEnd) ? horizonEnd : endDate;
+        if (from.isAfter(to)) {
+            return;
+        }
+
+        BitSet days = current.rooms().get(roomId);
+        BitSet updated = days == null ? new BitSet(horizonDays) : (BitSet) days.clone();
+        updated.set(indexOf(current, from), indexOf(current, to) + 1, isAvailable);
+        current.rooms().put(roomId, updated);
+    }
+
+    /**
+     * Overwrites the inclusive range with {@code available}, bit 0 being startDate.
+     */
+    public synchronized void replace(String roomId, LocalDate startDate, LocalDate endDate, BitSet available) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        LocalDate start = current.start();
+        LocalDate horizonEnd = start.plusDays(horizonDays - 1);
+        LocalDate from = startDate.isBefore(start) ? start : startDate;
+        LocalDate to = endDate.isAfter(horizonEnd) ? horizonEnd : endDate;
+        if (from.isAfter(to)) {
+            return;
+        }
+
+        BitSet days = current.rooms().get(roomId);
+        BitSet updated = days == null ? new BitSet(horizonDays) : (BitSet) days.clone();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            updated.set(indexOf(current, date), available.get((int) ChronoUnit.DAYS.between(startDate, date)));
+        }
+        current.rooms().put(roomId, updated);
+    }
+
+    private static int indexOf(Snapshot snapshot, LocalDate date) {
+        return (int) ChronoUnit.DAYS.between(snapshot.start(), date);
+    }
+
+    private void rollOverIfNeeded() {
+        Snapshot current = snapshot;
+        if (current != null && LocalDate.now().isAfter(current.start())) {
+            synchronized (this) {
+                if (LocalDate.now().isAfter(snapshot.start())) {
+                    reload();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.prakruthi.homestay.service;
+
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.client.ClientSession;
+import com.prakruthi.homestay.model.AvailabilityBlock;
+import com.prakruthi.homestay.repository.AvailabilityBlockRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Interval storage for availability: each room's calendar is a set of disjoint
+ * [startDate, endDate] blocks, split on update and merged with neighbours that
+ * carry the same state.
+ */
+@Service
+public class AvailabilityIntervalService {
+
+    private static final String LOCK_COLLECTION = "availability_block_locks";
+
+    record Plan(List<AvailabilityBlock> delete, List<AvailabilityBlock> save) {
+    }
+
+    @Autowired
+    private AvailabilityBlockRepository blockRepository;
+
+    @Autowired
+    private BookingHoldService holdService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoDatabaseFactory mongoDatabaseFactory;
+
+    public List<AvailabilityBlock> getBlocks(String roomId, LocalDate startDate, LocalDate endDate) {
+        return blockRepository.findOverlapping(roomId, startDate, endDate);
+    }
+
+    /**
+     * Rewrites the room's blocks for the range in one transaction. The room's entry in
+     * availability_block_locks is bumped first, so concurrent writers for the same room
+     * on any node conflict and the driver retries one of them; this needs a replica set.
+     */
+    public void setAvailability(String roomId, LocalDate startDate, LocalDate endDate,
+                                boolean isAvailable, String reason, String bookingId, String updatedBy) {
+        holdService.withRoomLock(roomId, () -> {
+            try (ClientSession session = mongoDatabaseFactory.getSession(ClientSessionOptions.builder().build())) {
+                session.withTransaction(() -> {
+                    MongoOperations tx = mongoTemplate.withSession(session);
+                    tx.upsert(Query.query(Criteria.where("_id").is(roomId)), new Update().inc("version", 1), LOCK_COLLECTION);
+
+                    // Widen by a day on each side so adjacent blocks with the same state are picked up for merging
+                    List<AvailabilityBlock> touching = tx.find(Query.query(Criteria.where("roomId").is(roomId)
+                            .and("startDate").lte(endDate.plusDays(1))
+                            .and("endDate").gte(startDate.minusDays(1)))
+                        .with(Sort.by("startDate")), AvailabilityBlock.class);
+
+                    Plan plan = plan(touching, roomId, startDate, endDate, isAvailable, reason, bookingId, updatedBy);
+                    if (!plan.delete().isEmpty()) {
+                        tx.remove(Query.query(Criteria.where("_id").in(
+                            plan.delete().stream().map(AvailabilityBlock::getId).toList())), AvailabilityBlock.class);
+                    }
+                    plan.save().forEach(tx::save);
+                    return null;
+                });
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Blocks to delete and to save so that [startDate, endDate] carries the new state.
+     * {@code touching} are the room's blocks overlapping the range widened by a day.
+     */
+    static Plan plan(List<AvailabilityBlock> touching, String roomId, LocalDate startDate, LocalDate endDate,
+                     boolean isAvailable, String reason, String bookingId, String updatedBy) {
+        LocalDate mergedStart = startDate;
+        LocalDate mergedEnd = endDate;
+        List<AvailabilityBlock> toDelete = new ArrayList<>();
+        List<AvailabilityBlock> toSave = new ArrayList<>();
+
+        for (AvailabilityBlock block : touching) {
+            if (hasState(block, isAvailable, reason, bookingId)) {
+                if (block.getStartDate().isBefore(mergedStart)) {
+                    mergedStart = block.getStartDate();
+                }
+                if (block.getEndDate().isAfter(mergedEnd)) {
+                    mergedEnd = block.getEndDate();
+                }
+                toDelete.add(block);
+                continue;
+            }
+
+            boolean overlaps = !block.getEndDate().isBefore(startDate) && !block.getStartDate().isAfter(endDate);
+            if (!overlaps) {
+                continue;
+            }
+
+            boolean keepsHead = block.getStartDate().isBefore(startDate);
+            boolean keepsTail = block.getEndDate().isAfter(endDate);
+
+            if (keepsTail) {
+                AvailabilityBlock tail = copyOf(block);
+                tail.setStartDate(endDate.plusDays(1));
+                toSave.add(tail);
+            }
+            if (keepsHead) {
+                block.setEndDate(startDate.minusDays(1));
+                toSave.add(block);
+            } else {
+                toDelete.add(block);
+            }
+        }
+
+        AvailabilityBlock merged = new AvailabilityBlock();
+        merged.setRoomId(roomId);
+        merged.setStartDate(mergedStart);
+        merged.setEndDate(mergedEnd);
+        merged.setAvailable(isAvailable);
+        merged.setReason(reason);
+        merged.setBookingId(bookingId);
+        merged.setUpdatedBy(updatedBy);
+        toSave.add(merged);
+
+        return new Plan(toDelete, toSave);
+    }
+
+    public boolean isRoomAvailable(String roomId, LocalDate startDate, LocalDate endDate) {
+        LocalDate nextUncovered = startDate;
+        for (AvailabilityBlock block : blockRepository.findOverlapping(roomId, startDate, endDate)) {
+            if (!block.isAvailable() || block.getStartDate().isAfter(nextUncovered)) {
+                return false;
+            }
+            nextUncovered = block.getEndDate().plusDays(1);
+            if (nextUncovered.isAfter(endDate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasState(AvailabilityBlock block, boolean isAvailable, String reason, String bookingId) {
+        return block.isAvailable() == isAvailable
+            && Objects.equals(block.getReason(), reason)
+            && Objects.equals(block.getBookingId(), bookingId);
+    }
+
+    private static AvailabilityBlock copyOf(AvailabilityBlock block) {
+        AvailabilityBlock copy = new AvailabilityBlock();
+        copy.setRoomId(block.getRoomId());
+        copy.setStartDate(block.getStartDate());
+        copy.setEndDate(block.getEndDate());
+        copy.setAvailable(block.isAvailable());
+        copy.setReason(block.getReason());
+        copy.setBookingId(block.getBookingId());
+        copy.setUpdatedBy(block.getUpdatedBy());
+        return copy;
+    }
+}
@@ -1,17 +1,35 @@
 package com.prakruthi.homestay.service;
 
+import com.mongodb.bulk.BulkWriteError;
 import com.prakruthi.homestay.model.Availability;
+import com.prakruthi.homestay.model.AvailabilityBlock;
+import com.prakruthi.homestay.model.AvailabilityDay;
+import com.prakruthi.homestay.model.AvailabilityUpdate;
 import com.prakruthi.homestay.model.Room;
 import com.prakruthi.homestay.model.User;
 import com.prakruthi.homestay.repository.AvailabilityRepository;
-import com.prakruthi.homestay.repository.RoomRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class AvailabilityService {
@@ -20,17 +38,50 @@ public class AvailabilityService {
     private AvailabilityRepository availabilityRepository;
 
     @Autowired
-    private RoomRepository roomRepository;
+    private RoomCatalog roomCatalog;
 
-    public List<Availability> getAvailability(String roomId, LocalDate startDate, LocalDate endDate) {
-        return availabilityRepository.findByRoomIdAndDateBetween(roomId, startDate, endDate);
+    @Autowired
+    private AvailabilityCalendar availabilityCalendar;
+
+    @Autowired
+    private AvailabilityIntervalService intervalService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${app.availability.storage:daily}")
+    private String storageMode;
+
+    @Value("${app.availability.bulk.max-operations:100}")
+    private int bulkMaxOperations;
+
+    // Room-days across all operations, an "all rooms" operation counting once per room
+    @Value("${app.availability.bulk.max-days:20000}")
+    private long bulkMaxDays;
+
+    public List<AvailabilityDay> getAvailability(String roomId, LocalDate startDate, LocalDate endDate) {
+        if (isIntervalStorage()) {
+            return expandBlocks(intervalService.getBlocks(roomId, startDate, endDate), startDate, endDate);
+        }
+        return availabilityRepository.findDaysByRoomIdAndDateBetweenOrderByDateAsc(roomId, startDate, endDate);
     }
 
     @Transactional
     public void setAvailability(String roomId, LocalDate startDate, LocalDate endDate, 
                               boolean isAvailable, String reason, User updatedBy) {
-        Room room = roomRepository.findById(roomId)
-            .orElseThrow(() -> new RuntimeException("Room not found"));
+        setAvailability(roomId, startDate, endDate, isAvailable, reason, null, updatedBy);
+    }
+
+    private void setAvailability(String roomId, LocalDate startDate, LocalDate endDate,
+                                 boolean isAvailable, String reason, String bookingId, User updatedBy) {
+        Room room = roomCatalog.getRoom(roomId);
+
+        if (isIntervalStorage()) {
+            intervalService.setAvailability(roomId, startDate, endDate, isAvailable, reason, bookingId,
+                updatedBy != null ? updatedBy.getId() : null);
+            availabilityCalendar.update(roomId, startDate, endDate, isAvailable);
+            return;
+        }
 
         List<Availability> availabilityList = new ArrayList<>();
         LocalDate currentDate = startDate;
@@ -38,6 +89,7 @@ public class AvailabilityService {
         while (!currentDate.isAfter(endDate)) {
             Availability availability = new Availability();
             availability.setRoom(room);
+            availability.setRoomId(roomId);
             availability.setDate(currentDate);
             availability.setAvailable(isAvailable);
             availability.setReason(reason);
@@ -48,21 +100,213 @@ public class AvailabilityService {
 
         availabilityRepository.deleteByRoomIdAndDateBetween(roomId, startDate, endDate);
         availabilityRepository.saveAll(availabilityList);
+        availabilityCalendar.update(roomId, startDate, endDate, isAvailable);
     }
 
     public boolean isRoomAvailable(String roomId, LocalDate startDate, LocalDate endDate) {
+        if (availabilityCalendar.covers(startDate, endDate)) {
+            return availabilityCalendar.isAvailable(roomId, startDate, endDate);
+        }
+        return isRoomAvailableInStorage(roomId, startDate, endDate);
+    }
+
+    /**
+     * Asks the database directly. The calendar only sees other nodes' writes on its next
+     * reload, so anything that commits to the answer must use this.
+     */
+    public boolean isRoomAvailableInStorage(String roomId, LocalDate startDate, LocalDate endDate) {
+        if (isIntervalStorage()) {
+            return intervalService.isRoomAvailable(roomId, startDate, endDate);
+        }
+
         List<Availability> availabilities = availabilityRepository.findAvailableDates(roomId, startDate, endDate);
-        long daysInRange = startDate.until(endDate).getDays() + 1;
+        long daysInRange = ChronoUnit.DAYS.between(startDate, endDate) + 1;
         return availabilities.size() == daysInRange;
     }
 
+    /**
+     * Applies many range updates at once. In daily storage every affected day becomes one
+     * upsert in a single unordered bulk write; the result list has one entry per operation.
+     * Requests over the configured operation or room-day limits are rejected as a whole.
+     */
+    public List<Map<String, Object>> bulkUpdate(List<AvailabilityUpdate> updates, User updatedBy) {
+        if (updates.size() > bulkMaxOperations) {
+            throw new RuntimeException("At most " + bulkMaxOperations + " operations can be sent at once");
+        }
+
+        Map<String, Room> rooms = new HashMap<>();
+        roomCatalog.getAllRooms().forEach(room -> rooms.put(room.getId(), room));
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        List<List<Room>> targets = new ArrayList<>();
+        for (AvailabilityUpdate update : updates) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("roomId", update.getRoomId() != null ? update.getRoomId() : "ALL");
+            result.put("startDate", update.getStartDate());
+            result.put("endDate", update.getEndDate());
+
+            String error = null;
+            if (update.getStartDate() == null || update.getEndDate() == null
+                    || update.getEndDate().isBefore(update.getStartDate())) {
+                error = "Invalid date range";
+            } else if (update.getRoomId() != null && !rooms.containsKey(update.getRoomId())) {
+                error = "Room not found";
+            } else if (overlapsEarlier(update, updates.subList(0, results.size()), results)) {
+                // Unordered bulk writes give overlapping operations no defined winner
+                error = "Overlaps an earlier operation in this request";
+            }
+
+            result.put("status", error == null ? "OK" : "FAILED");
+            if (error != null) {
+                result.put("error", error);
+            }
+            results.add(result);
+            targets.add(error != null ? List.of()
+                : update.getRoomId() != null ? List.of(rooms.get(update.getRoomId())) : List.copyOf(rooms.values()));
+        }
+
+        long roomDays = 0;
+        for (int i = 0; i < updates.size(); i++) {
+            AvailabilityUpdate update = updates.get(i);
+            if (!targets.get(i).isEmpty()) {
+                roomDays += (ChronoUnit.DAYS.between(update.getStartDate(), update.getEndDate()) + 1) * targets.get(i).size();
+            }
+        }
+        if (roomDays > bulkMaxDays) {
+            throw new RuntimeException("The operations cover " + roomDays + " room-days; at most "
+                + bulkMaxDays + " can be updated at once");
+        }
+
+        if (isIntervalStorage()) {
+            for (int i = 0; i < updates.size(); i++) {
+                AvailabilityUpdate update = updates.get(i);
+                try {
+                    for (Room room : targets.get(i)) {
+                        setAvailability(room.getId(), update.getStartDate(), update.getEndDate(),
+                            update.isAvailable(), update.getReason(), null, updatedBy);
+                    }
+                } catch (RuntimeException e) {
+                    results.get(i).put("status", "FAILED");
+                    results.get(i).put("error", e.getMessage());
+                }
+            }
+            return results;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Availability.class);
+        List<Integer> writeOwners = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < updates.size(); i++) {
+            AvailabilityUpdate update = updates.get(i);
+            for (Room room : targets.get(i)) {
+                for (LocalDate date = update.getStartDate(); !date.isAfter(update.getEndDate()); date = date.plusDays(1)) {
+                    bulk.upsert(
+                        Query.query(Criteria.where("roomId").is(room.getId()).and("date").is(date)),
+                        new Update()
+                            .set("room", room)
+                            .set("isAvailable", update.isAvailable())
+                            .set("reason", update.getReason())
+                            .set("updatedBy", updatedBy)
+                            .set("updatedAt", now));
+                    writeOwners.add(i);
+                }
+            }
+        }
+
+        if (!writeOwners.isEmpty()) {
+            try {
+                bulk.execute();
+            } catch (BulkOperationException e) {
+                for (BulkWriteError writeError : e.getErrors()) {
+                    Map<String, Object> result = results.get(writeOwners.get(writeError.getIndex()));
+                    result.put("status", "FAILED");
+                    result.put("error", writeError.getMessage());
+                }
+            }
+        }
+
+        // A failed operation may still have written some of its days, so the calendar
+        // follows what is stored rather than the per-operation status. One query over
+        // the span of all operations covers every target room.
+        Set<String> targetRooms = new HashSet<>();
+        LocalDate spanStart = null;
+        LocalDate spanEnd = null;
+        for (int i = 0; i < updates.size(); i++) {
+            if (targets.get(i).isEmpty()) {
+                continue;
+            }
+            AvailabilityUpdate update = updates.get(i);
+            targets.get(i).forEach(room -> targetRooms.add(room.getId()));
+            spanStart = spanStart == null || update.getStartDate().isBefore(spanStart) ? update.getStartDate() : spanStart;
+            spanEnd = spanEnd == null || update.getEndDate().isAfter(spanEnd) ? update.getEndDate() : spanEnd;
+        }
+        if (targetRooms.isEmpty()) {
+            return results;
+        }
+
+        Map<String, BitSet> stored = new HashMap<>();
+        for (Availability day : availabilityRepository.findAvailableRoomDays(targetRooms, spanStart, spanEnd)) {
+            stored.computeIfAbsent(day.getRoomId(), id -> new BitSet())
+                .set((int) ChronoUnit.DAYS.between(spanStart, day.getDate()));
+        }
+        for (int i = 0; i < updates.size(); i++) {
+            AvailabilityUpdate update = updates.get(i);
+            int from = (int) ChronoUnit.DAYS.between(spanStart, update.getStartDate());
+            int to = (int) ChronoUnit.DAYS.between(spanStart, update.getEndDate()) + 1;
+            for (Room room : targets.get(i)) {
+                availabilityCalendar.replace(room.getId(), update.getStartDate(), update.getEndDate(),
+                    stored.getOrDefault(room.getId(), new BitSet()).get(from, to));
+            }
+        }
+        return results;
+    }
+
+    private static boolean overlapsEarlier(AvailabilityUpdate update, List<AvailabilityUpdate> earlier,
+                                           List<Map<String, Object>> earlierResults) {
+        for (int i = 0; i < earlier.size(); i++) {
+            AvailabilityUpdate other = earlier.get(i);
+            if (!"OK".equals(earlierResults.get(i).get("status"))) {
+                continue;
+            }
+            boolean sameRooms = update.getRoomId() == null || other.getRoomId() == null
+                || update.getRoomId().equals(other.getRoomId());
+            if (sameRooms && !update.getStartDate().isAfter(other.getEndDate())
+                    && !other.getStartDate().isAfter(update.getEndDate())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Transactional
     public void blockDatesForBooking(String roomId, LocalDate startDate, LocalDate endDate) {
-        setAvailability(roomId, startDate, endDate, false, Availability.BlockReason.BOOKED.name(), null);
+        blockDatesForBooking(roomId, startDate, endDate, null);
+    }
+
+    @Transactional
+    public void blockDatesForBooking(String roomId, LocalDate startDate, LocalDate endDate, String bookingId) {
+        setAvailability(roomId, startDate, endDate, false, Availability.BlockReason.BOOKED.name(), bookingId, null);
     }
 
     @Transactional
     public void releaseDatesFromBooking(String roomId, LocalDate startDate, LocalDate endDate) {
         setAvailability(roomId, startDate, endDate, true, null, null);
     }
+
+    public boolean isIntervalStorage() {
+        return "interval".equalsIgnoreCase(storageMode);
+    }
+
+    private List<AvailabilityDay> expandBlocks(List<AvailabilityBlock> blocks, LocalDate startDate, LocalDate endDate) {
+        List<AvailabilityDay> days = new ArrayList<>();
+        for (AvailabilityBlock block : blocks) {
+            LocalDate from = block.getStartDate().isBefore(startDate) ? startDate : block.getStartDate();
+            LocalDate to = block.getEndDate().isAfter(endDate) ? endDate : block.getEndDate();
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                days.add(new AvailabilityDay(date, block.isAvailable(), block.getReason()));
+            }
+        }
+        return days;
+    }
 }
@@ -0,0 +1,262 @@
+package com.prakruthi.homestay.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prakruthi.homestay.model.Booking;
+import com.prakruthi.homestay.repository.BookingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+/**
+ * Writes bookings created in a date range as NDJSON or CSV, one booking per line,
+ * straight from a Mongo cursor to the response. Only the current cursor batch and
+ * the write buffer are held in memory, and the buffer is flushed every few hundred
+ * rows so the client sees data arrive throughout a long export.
+ */
+@Service
+public class BookingExportService {
+
+    public enum Format {
+        NDJSON,
+        CSV
+    }
+
+    private static final String[] CSV_HEADER = {
+        "bookingId", "createdAt", "roomId", "guestName", "guestEmail", "guestPhone", "numberOfGuests",
+        "checkInDate", "checkOutDate", "nights", "status", "paymentStatus", "razorpayOrderId",
+        "razorpayPaymentId", "totalAmount", "refundedAmount", "netAmount", "priceBreakdown",
+        "refundDetails", "cancellationReason"
+    };
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.export.flush-rows:500}")
+    private int flushRows;
+
+    @Value("${app.export.buffer-bytes:65536}")
+    private int bufferBytes;
+
+    // Each export holds a cursor and a write buffer for its whole duration
+    private final Semaphore running;
+
+    public BookingExportService(@Value("${app.export.max-concurrent:2}") int maxConcurrent) {
+        this.running = new Semaphore(maxConcurrent);
+    }
+
+    public boolean tryStart() {
+        return running.tryAcquire();
+    }
+
+    public void finish() {
+        running.release();
+    }
+
+    /**
+     * Streams bookings created on or after {@code from} and before {@code until}.
+     * Returns the number of bookings written.
+     */
+    public long export(LocalDate from, LocalDate until, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), bufferBytes);
+        if (format == Format.CSV) {
+            writeCsvLine(writer, CSV_HEADER);
+        }
+
+        long rows = 0;
+        try (Stream<Booking> bookings = bookingRepository.streamForExport(from.atStartOfDay(), until.atStartOfDay())) {
+            Iterator<Booking> iterator = bookings.iterator();
+            while (iterator.hasNext()) {
+                Booking booking = iterator.next();
+                if (format == Format.CSV) {
+                    writeCsvLine(writer, csvRow(booking));
+                } else {
+                    writer.write(objectMapper.writeValueAsString(jsonRow(booking)));
+                    writer.write('\n');
+                }
+                if (++rows % flushRows == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private Map<String, Object> jsonRow(Booking booking) {
+        Booking.GuestDetails guest = booking.getGuestDetails();
+
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("bookingId", booking.getBookingId());
+        row.put("createdAt", booking.getCreatedAt());
+        row.put("roomId", booking.getRoomId());
+        row.put("guestName", guest != null ? guest.getName() : null);
+        row.put("guestEmail", guest != null ? guest.getEmail() : null);
+        row.put("guestPhone", guest != null ? guest.getPhone() : null);
+        row.put("numberOfGuests", guest != null ? guest.getNumberOfGuests() : null);
+        row.put("checkInDate", booking.getCheckInDate());
+        row.put("checkOutDate", booking.getCheckOutDate());
+        row.put("nights", nights(booking));
+        row.put("status", booking.getStatus());
+        row.put("paymentStatus", booking.getPaymentStatus());
+        row.put("razorpayOrderId", booking.getRazorpayOrderId());
+        row.put("razorpayPaymentId", booking.getRazorpayPaymentId());
+        row.put("totalAmount", booking.getTotalAmount());
+        row.put("refundedAmount", refunded(booking));
+        row.put("netAmount", net(booking));
+
+        List<Map<String, Object>> rates = new ArrayList<>();
+        if (booking.getPriceBreakdown() != null) {
+            for (Booking.DailyRate rate : booking.getPriceBreakdown()) {
+                Map<String, Object> day = new LinkedHashMap<>();
+                day.put("date", rate.getDate());
+                day.put("price", rate.getPrice());
+                rates.add(day);
+            }
+        }
+        row.put("priceBreakdown", rates);
+
+        List<Map<String, Object>> refunds = new ArrayList<>();
+        if (booking.getRefundDetails() != null) {
+            for (Booking.RefundDetails refund : booking.getRefundDetails()) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("refundId", refund.getRefundId());
+                entry.put("amount", refund.getAmount());
+                entry.put("reason", refund.getReason());
+                entry.put("processedAt", refund.getProcessedAt());
+                refunds.add(entry);
+            }
+        }
+        row.put("refundDetails", refunds);
+        row.put("cancellationReason", booking.getCancellationReason());
+        return row;
+    }
+
+    private String[] csvRow(Booking booking) {
+        Booking.GuestDetails guest = booking.getGuestDetails();
+
+        // Nested lists go in one cell each: "date:price;date:price" and "refundId|amount|processedAt;..."
+        StringJoiner rates = new StringJoiner(";");
+        if (booking.getPriceBreakdown() != null) {
+            for (Booking.DailyRate rate : booking.getPriceBreakdown()) {
+                rates.add(text(rate.getDate()) + ":" + text(rate.getPrice()));
+            }
+        }
+        StringJoiner refunds = new StringJoiner(";");
+        if (booking.getRefundDetails() != null) {
+            for (Booking.RefundDetails refund : booking.getRefundDetails()) {
+                refunds.add(text(refund.getRefundId()) + "|" + text(refund.getAmount()) + "|" + text(refund.getProcessedAt()));
+            }
+        }
+
+        return new String[] {
+            booking.getBookingId(),
+            text(booking.getCreatedAt()),
+            booking.getRoomId(),
+            guest != null ? guestText(guest.getName()) : null,
+            guest != null ? guestText(guest.getEmail()) : null,
+            guest != null ? guestText(guest.getPhone()) : null,
+            guest != null ? String.valueOf(guest.getNumberOfGuests()) : null,
+            text(booking.getCheckInDate()),
+            text(booking.getCheckOutDate()),
+            text(nights(booking)),
+            text(booking.getStatus()),
+            text(booking.getPaymentStatus()),
+            booking.getRazorpayOrderId(),
+            booking.getRazorpayPaymentId(),
+            text(booking.getTotalAmount()),
+            text(refunded(booking)),
+            text(net(booking)),
+            rates.toString(),
+            refunds.toString(),
+            guestText(booking.getCancellationReason())
+        };
+    }
+
+    private static Long nights(Booking booking) {
+        if (booking.getCheckInDate() == null || booking.getCheckOutDate() == null) {
+            return null;
+        }
+        return ChronoUnit.DAYS.between(booking.getCheckInDate(), booking.getCheckOutDate());
+    }
+
+    private static BigDecimal refunded(Booking booking) {
+        BigDecimal total = BigDecimal.ZERO;
+        if (booking.getRefundDetails() != null) {
+            for (Booking.RefundDetails refund : booking.getRefundDetails()) {
+                if (refund.getAmount() != null) {
+                    total = total.add(refund.getAmount());
+                }
+            }
+        }
+        return total;
+    }
+
+    private static BigDecimal net(Booking booking) {
+        BigDecimal total = booking.getTotalAmount() != null ? booking.getTotalAmount() : BigDecimal.ZERO;
+        return total.subtract(refunded(booking));
+    }
+
+    private static String text(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof BigDecimal amount) {
+            return amount.toPlainString();
+        }
+        return value.toString();
+    }
+
+    // Spreadsheets evaluate cells starting with a formula character, so guest input is defused
+    private static String guestText(String value) {
+        if (value == null || value.isEmpty()) {
+            return value;
+        }
+        char first = value.charAt(0);
+        return first == '=' || first == '+' || first == '-' || first == '@' ? "'" + value : value;
+    }
+
+    private static void writeCsvLine(Writer writer, String[] cells) throws IOException {
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeCsvCell(writer, cells[i]);
+        }
+        writer.write("\r\n");
+    }
+
+    // RFC 4180: quote cells containing a separator, quote or line break, doubling inner quotes
+    private static void writeCsvCell(Writer writer, String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,95 @@
+package com.prakruthi.homestay.service;
+
+import com.prakruthi.homestay.model.BookingHold;
+import com.prakruthi.homestay.repository.BookingHoldRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Claims room nights for bookings. Work on one room is serialized by a striped
+ * in-process lock; the unique (roomId, date) index on booking_holds guards
+ * against double-selling across nodes.
+ */
+@Service
+public class BookingHoldService {
+
+    private static final int LOCK_STRIPES = 64;
+
+    @Autowired
+    private BookingHoldRepository holdRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    public BookingHoldService() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T withRoomLock(String roomId, Supplier<T> action) {
+        ReentrantLock lock = locks[Math.floorMod(roomId.hashCode(), LOCK_STRIPES)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Claims every night in the inclusive range for the booking, or none of them.
+     * Returns false if another booking already holds one of the nights.
+     */
+    public boolean acquire(String roomId, LocalDate firstNight, LocalDate lastNight, String bookingId, Instant expiresAt) {
+        // The TTL monitor only runs once a minute, so clear lapsed holds ourselves
+        holdRepository.deleteExpired(roomId, firstNight, lastNight, Instant.now());
+
+        List<BookingHold> holds = new ArrayList<>();
+        for (LocalDate date = firstNight; !date.isAfter(lastNight); date = date.plusDays(1)) {
+            BookingHold hold = new BookingHold();
+            hold.setRoomId(roomId);
+            hold.setDate(date);
+            hold.setBookingId(bookingId);
+            hold.setExpiresAt(expiresAt);
+            holds.add(hold);
+        }
+
+        try {
+            holdRepository.insert(holds);
+            return true;
+        } catch (DuplicateKeyException e) {
+            holdRepository.deleteByBookingId(bookingId);
+            return false;
+        }
+    }
+
+    /**
+     * Makes the booking's holds permanent. Returns the number of nights still held.
+     */
+    public long confirm(String bookingId) {
+        mongoTemplate.updateMulti(
+            Query.query(Criteria.where("bookingId").is(bookingId)),
+            new Update().unset("expiresAt"),
+            BookingHold.class);
+        return holdRepository.countByBookingId(bookingId);
+    }
+
+    public void release(String bookingId) {
+        holdRepository.deleteByBookingId(bookingId);
+    }
+}
@@ -0,0 +1,247 @@
+package com.prakruthi.homestay.service;
+
+import com.prakruthi.homestay.model.Booking;
+import com.prakruthi.homestay.model.CursorPage;
+import com.prakruthi.homestay.model.Room;
+import com.prakruthi.homestay.model.User;
+import com.prakruthi.homestay.repository.BookingRepository;
+import com.prakruthi.homestay.repository.KeysetPaginator;
+import com.prakruthi.homestay.repository.PartialUpdateRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class BookingService {
+
+    public static final String HOLD_EXPIRED_REASON = "Payment not completed before hold expired";
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RoomCatalog roomCatalog;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private PricingService pricingService;
+
+    @Autowired
+    private BookingHoldService holdService;
+
+    @Autowired
+    private PartialUpdateRepository partialUpdates;
+
+    @Autowired
+    private KeysetPaginator keysetPaginator;
+
+    @Value("${app.booking.hold-minutes:15}")
+    private int holdMinutes;
+
+    public Booking getBooking(String bookingId) {
+        return bookingRepository.findByBookingId(bookingId).orElse(null);
+    }
+
+    public Booking getBookingByOrderId(String orderId) {
+        return bookingRepository.findByRazorpayOrderId(orderId).orElse(null);
+    }
+
+    public Booking getBookingByPaymentId(String paymentId) {
+        return bookingRepository.findByRazorpayPaymentId(paymentId).orElse(null);
+    }
+
+    public CursorPage<Booking> getBookingsPage(Booking.BookingStatus status, String cursor, Integer limit,
+                                               boolean includeTotal) {
+        Criteria filter = status != null ? Criteria.where("status").is(status) : null;
+        return keysetPaginator.page(Booking.class, filter, cursor, limit, includeTotal);
+    }
+
+    public CursorPage<Booking> getUserBookingsPage(User user, String cursor, Integer limit, boolean includeTotal) {
+        return keysetPaginator.page(Booking.class, Criteria.where("user").is(user), cursor, limit, includeTotal);
+    }
+
+    public Booking updateBooking(Booking booking) {
+        return bookingRepository.save(booking);
+    }
+
+    /**
+     * Checks availability, claims the nights and prices the stay as one step per room.
+     * The booking stays PENDING until payment confirms it or the hold lapses.
+     */
+    public Booking createBooking(Booking request, User user) {
+        if (request.getRoom() == null || request.getRoom().getId() == null) {
+            throw new RuntimeException("Room is required");
+        }
+        String roomId = request.getRoom().getId();
+        LocalDate checkIn = request.getCheckInDate();
+        LocalDate checkOut = request.getCheckOutDate();
+        if (checkIn == null || checkOut == null || !checkOut.isAfter(checkIn)) {
+            throw new RuntimeException("Check-out date must be after check-in date");
+        }
+        LocalDate lastNight = checkOut.minusDays(1);
+
+        Room room = roomCatalog.getRoom(roomId);
+        if (request.getGuestDetails() != null && request.getGuestDetails().getNumberOfGuests() > room.getCapacity()) {
+            throw new RuntimeException("Number of guests exceeds room capacity");
+        }
+
+        return holdService.withRoomLock(roomId, () -> {
+            // Cheap in-memory check first, then storage, which sees blocks made on other nodes
+            if (!availabilityService.isRoomAvailable(roomId, checkIn, lastNight)
+                    || !availabilityService.isRoomAvailableInStorage(roomId, checkIn, lastNight)) {
+                throw new RuntimeException("Room is not available for the selected dates");
+            }
+
+            String bookingId = "PH" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+            LocalDateTime holdExpiresAt = LocalDateTime.now().plusMinutes(holdMinutes);
+            Instant expiresAt = holdExpiresAt.atZone(ZoneId.systemDefault()).toInstant();
+
+            if (!holdService.acquire(roomId, checkIn, lastNight, bookingId, expiresAt)) {
+                throw new RuntimeException("Room is not available for the selected dates");
+            }
+
+            try {
+                List<Booking.DailyRate> rates = pricingService.getNightlyRates(roomId, checkIn, lastNight);
+
+                Booking booking = new Booking();
+                booking.setBookingId(bookingId);
+                booking.setUser(user);
+                booking.setRoom(room);
+                booking.setRoomId(roomId);
+                booking.setGuestDetails(request.getGuestDetails());
+                booking.setCheckInDate(checkIn);
+                booking.setCheckOutDate(checkOut);
+                booking.setSpecialRequests(request.getSpecialRequests());
+                booking.setPriceBreakdown(rates);
+                booking.setTotalAmount(rates.stream()
+                    .map(Booking.DailyRate::getPrice)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add));
+                booking.setStatus(Booking.BookingStatus.PENDING);
+                booking.setHoldExpiresAt(holdExpiresAt);
+
+                return bookingRepository.save(booking);
+            } catch (RuntimeException e) {
+                holdService.release(bookingId);
+                throw e;
+            }
+        });
+    }
+
+    public Booking confirmBooking(Booking booking, String paymentId) {
+        // The checkout callback and the capture webhook both confirm; whichever comes second is a no-op
+        if (booking.getStatus() == Booking.BookingStatus.CONFIRMED && paymentId.equals(booking.getRazorpayPaymentId())) {
+            return booking;
+        }
+        Booking confirmed = confirmIfAvailable(booking, paymentId);
+        if (confirmed == null) {
+            throw new RuntimeException("Booking hold expired and the dates are no longer available");
+        }
+        return confirmed;
+    }
+
+    /**
+     * Like {@link #confirmBooking}, but returns null instead of throwing when the hold
+     * lapsed and another booking has taken the nights since. Only a pending booking, or
+     * one cancelled because its hold lapsed, can be confirmed.
+     */
+    public Booking confirmIfAvailable(Booking booking, String paymentId) {
+        boolean lapsedHold = booking.getStatus() == Booking.BookingStatus.CANCELLED
+            && HOLD_EXPIRED_REASON.equals(booking.getCancellationReason());
+        if (booking.getStatus() != Booking.BookingStatus.PENDING && !lapsedHold) {
+            throw new RuntimeException("Booking is " + booking.getStatus() + " and can no longer be confirmed");
+        }
+
+        String roomId = booking.getRoom().getId();
+        LocalDate lastNight = booking.getCheckOutDate().minusDays(1);
+        long nights = ChronoUnit.DAYS.between(booking.getCheckInDate(), booking.getCheckOutDate());
+
+        return holdService.withRoomLock(roomId, () -> {
+            boolean reacquired = false;
+            if (holdService.confirm(booking.getBookingId()) < nights) {
+                // The hold lapsed before payment; take the nights again if nobody else has
+                holdService.release(booking.getBookingId());
+                if (!holdService.acquire(roomId, booking.getCheckInDate(), lastNight, booking.getBookingId(), null)) {
+                    return null;
+                }
+                reacquired = true;
+            }
+
+            // Only applies if nothing moved the booking on since it was read, e.g. a refund or cancellation
+            Update update = new Update()
+                .set("razorpayPaymentId", paymentId)
+                .set("status", Booking.BookingStatus.CONFIRMED)
+                .set("paymentStatus", Booking.PaymentStatus.PAID)
+                .unset("holdExpiresAt");
+            if (lapsedHold) {
+                update.unset("cancellationReason").unset("refundDueAt");
+            }
+            Booking confirmed = partialUpdates.updateFirst(Booking.class,
+                Criteria.where("_id").is(booking.getId()).and("status").is(booking.getStatus()), update);
+            if (confirmed == null) {
+                if (reacquired) {
+                    holdService.release(booking.getBookingId());
+                }
+                throw new RuntimeException("Booking changed while confirming payment");
+            }
+
+            availabilityService.blockDatesForBooking(roomId, booking.getCheckInDate(), lastNight, booking.getBookingId());
+            return confirmed;
+        });
+    }
+
+    public Booking releaseBooking(Booking booking, Booking.BookingStatus status, String reason) {
+        String roomId = booking.getRoom().getId();
+
+        return holdService.withRoomLock(roomId, () -> {
+            // Only a live booking still owns its nights; once cancelled or refunded they may belong to someone else
+            boolean wasConfirmed = booking.getStatus() == Booking.BookingStatus.CONFIRMED
+                || booking.getStatus() == Booking.BookingStatus.CHECKED_IN;
+            holdService.release(booking.getBookingId());
+            if (wasConfirmed) {
+                availabilityService.releaseDatesFromBooking(
+                    roomId, booking.getCheckInDate(), booking.getCheckOutDate().minusDays(1));
+            }
+
+            booking.setStatus(status);
+            booking.setCancellationReason(reason);
+            booking.setHoldExpiresAt(null);
+            return bookingRepository.save(booking);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.booking.hold-sweep-ms:60000}")
+    public void expireLapsedHolds() {
+        List<Booking> lapsed = bookingRepository.findByStatusAndHoldExpiresAtBefore(
+            Booking.BookingStatus.PENDING, LocalDateTime.now());
+
+        for (Booking booking : lapsed) {
+            holdService.withRoomLock(booking.getRoom().getId(), () -> {
+                // Only cancels if payment has not confirmed the booking in the meantime
+                Booking cancelled = partialUpdates.updateFirst(Booking.class,
+                    Criteria.where("_id").is(booking.getId()).and("status").is(Booking.BookingStatus.PENDING),
+                    new Update()
+                        .set("status", Booking.BookingStatus.CANCELLED)
+                        .set("cancellationReason", HOLD_EXPIRED_REASON)
+                        .unset("holdExpiresAt"));
+                if (cancelled != null) {
+                    holdService.release(cancelled.getBookingId());
+                }
+                return null;
+            });
+        }
+    }
+}
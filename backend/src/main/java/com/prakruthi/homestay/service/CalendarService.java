@@ -0,0 +1,118 @@
+package com.prakruthi.homestay.service;
+
+import com.prakruthi.homestay.model.AvailabilityDay;
+import com.prakruthi.homestay.model.Booking;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the compact calendar payload: for each room, an availability bitmap and
+ * nightly prices in paise, both indexed by days since startDate.
+ */
+@Service
+public class CalendarService {
+
+    @Autowired
+    private AvailabilityCalendar availabilityCalendar;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private PriceIndex priceIndex;
+
+    @Autowired
+    private PricingService pricingService;
+
+    public Map<String, Object> getCalendar(List<String> roomIds, LocalDate startDate, LocalDate endDate) {
+        int days = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+
+        List<Map<String, Object>> rooms = new ArrayList<>();
+        for (String roomId : roomIds) {
+            Map<String, Object> room = new LinkedHashMap<>();
+            room.put("roomId", roomId);
+            // BitSet.toByteArray is little-endian: day i is bit (i % 8) of byte (i / 8); missing trailing bytes are 0
+            room.put("available", Base64.getEncoder().encodeToString(availability(roomId, startDate, endDate).toByteArray()));
+            room.put("prices", prices(roomId, startDate, endDate));
+            rooms.add(room);
+        }
+
+        Map<String, Object> calendar = new LinkedHashMap<>();
+        calendar.put("startDate", startDate);
+        calendar.put("days", days);
+        calendar.put("rooms", rooms);
+        return calendar;
+    }
+
+    /**
+     * Strong ETag over the whole payload. SHA-256 rather than a hash code, since a
+     * collision would turn into a 304 and leave clients on stale availability or prices.
+     */
+    public String etagFor(Map<String, Object> calendar) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(calendar.get("startDate").toString().getBytes(StandardCharsets.UTF_8));
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt((int) calendar.get("days")).array());
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> rooms = (List<Map<String, Object>>) calendar.get("rooms");
+        for (Map<String, Object> room : rooms) {
+            // Length-prefixed so adjacent fields cannot run into each other
+            update(digest, ((String) room.get("roomId")).getBytes(StandardCharsets.UTF_8));
+            update(digest, ((String) room.get("available")).getBytes(StandardCharsets.US_ASCII));
+            long[] prices = (long[]) room.get("prices");
+            ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + prices.length * Long.BYTES).putInt(prices.length);
+            for (long price : prices) {
+                buffer.putLong(price);
+            }
+            digest.update(buffer.array());
+        }
+        return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest()) + "\"";
+    }
+
+    private static void update(MessageDigest digest, byte[] bytes) {
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+
+    private BitSet availability(String roomId, LocalDate startDate, LocalDate endDate) {
+        if (availabilityCalendar.covers(startDate, endDate)) {
+            return availabilityCalendar.slice(roomId, startDate, endDate);
+        }
+
+        BitSet bits = new BitSet();
+        for (AvailabilityDay day : availabilityService.getAvailability(roomId, startDate, endDate)) {
+            if (day.isAvailable()) {
+                bits.set((int) ChronoUnit.DAYS.between(startDate, day.date()));
+            }
+        }
+        return bits;
+    }
+
+    private long[] prices(String roomId, LocalDate startDate, LocalDate endDate) {
+        if (priceIndex.covers(startDate, endDate)) {
+            return priceIndex.nightlyPaise(roomId, startDate, endDate);
+        }
+
+        return pricingService.getNightlyRates(roomId, startDate, endDate).stream()
+            .map(Booking.DailyRate::getPrice)
+            .mapToLong(PriceIndex::toPaise)
+            .toArray();
+    }
+}
@@ -0,0 +1,176 @@
+package com.prakruthi.homestay.service;
+
+import com.prakruthi.homestay.model.Booking;
+import com.prakruthi.homestay.model.EmailOutbox;
+import com.prakruthi.homestay.repository.BookingRepository;
+import com.prakruthi.homestay.repository.EmailOutboxRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends transactional email off the request path. Callers enqueue an outbox entry;
+ * a bounded worker pool sends it, retrying failures with exponential backoff. The
+ * outbox lives in Mongo, so entries survive restarts and are picked up by the poller.
+ */
+@Service
+public class EmailOutboxService {
+
+    private static final Duration CLAIM_LEASE = Duration.ofMinutes(5);
+
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ResendEmailService emailService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${app.email.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.email.outbox.initial-backoff-seconds:30}")
+    private long initialBackoffSeconds;
+
+    @Value("${app.email.outbox.max-backoff-seconds:3600}")
+    private long maxBackoffSeconds;
+
+    private final ThreadPoolExecutor workers;
+
+    public EmailOutboxService(
+            @Value("${app.email.outbox.workers:4}") int workerCount,
+            @Value("${app.email.outbox.queue-size:500}") int queueSize) {
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueSize), runnable -> {
+                Thread thread = new Thread(runnable, "email-outbox");
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    /**
+     * Queues the email and hands it to a worker straight away. Enqueueing the same
+     * template for the same booking again is a no-op.
+     */
+    public void enqueue(String bookingId, EmailOutbox.Template template) {
+        EmailOutbox entry = new EmailOutbox();
+        entry.setBookingId(bookingId);
+        entry.setTemplate(template);
+        entry.setCreatedAt(Instant.now());
+        entry.setNextAttemptAt(entry.getCreatedAt());
+
+        try {
+            entry = outboxRepository.insert(entry);
+        } catch (DuplicateKeyException e) {
+            return;
+        }
+
+        String id = entry.getId();
+        try {
+            workers.execute(() -> {
+                EmailOutbox claimed = claim(id);
+                if (claimed != null) {
+                    send(claimed);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Workers are saturated; the poller will pick the entry up
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.email.outbox.poll-ms:10000}")
+    public void dispatchDue() {
+        // Only claim as many entries as the queue can take, so nothing is claimed and then dropped
+        while (workers.getQueue().remainingCapacity() > 0) {
+            EmailOutbox claimed = claim(null);
+            if (claimed == null) {
+                return;
+            }
+            try {
+                workers.execute(() -> send(claimed));
+            } catch (RejectedExecutionException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Atomically marks one due entry as SENDING. A SENDING entry whose lease has run
+     * out (e.g. the node died mid-send) becomes due again. With a null id, claims any due entry.
+     */
+    private EmailOutbox claim(String id) {
+        Instant now = Instant.now();
+        Criteria criteria = Criteria.where("status").in(EmailOutbox.Status.PENDING, EmailOutbox.Status.SENDING)
+            .and("nextAttemptAt").lte(now);
+        if (id != null) {
+            criteria.and("_id").is(id);
+        }
+        Query query = Query.query(criteria);
+        Update update = new Update()
+            .set("status", EmailOutbox.Status.SENDING)
+            .set("nextAttemptAt", now.plus(CLAIM_LEASE))
+            .inc("attempts", 1);
+        return mongoTemplate.findAndModify(query, update,
+            FindAndModifyOptions.options().returnNew(true), EmailOutbox.class);
+    }
+
+    private void send(EmailOutbox entry) {
+        try {
+            Booking booking = bookingRepository.findByBookingId(entry.getBookingId())
+                .orElseThrow(() -> new RuntimeException("Booking not found"));
+
+            switch (entry.getTemplate()) {
+                case BOOKING_CONFIRMATION -> emailService.sendBookingConfirmation(booking);
+            }
+
+            mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(entry.getId())),
+                new Update()
+                    .set("status", EmailOutbox.Status.SENT)
+                    .set("sentAt", Instant.now())
+                    .unset("nextAttemptAt")
+                    .unset("lastError"),
+                EmailOutbox.class);
+        } catch (Exception e) {
+            boolean exhausted = entry.getAttempts() >= maxAttempts;
+            Update update = new Update()
+                .set("status", exhausted ? EmailOutbox.Status.FAILED : EmailOutbox.Status.PENDING)
+                .set("lastError", e.getMessage());
+            if (exhausted) {
+                update.unset("nextAttemptAt");
+            } else {
+                update.set("nextAttemptAt", Instant.now().plusSeconds(backoffSeconds(entry.getAttempts())));
+            }
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(entry.getId())), update, EmailOutbox.class);
+        }
+    }
+
+    private long backoffSeconds(int attempts) {
+        long backoff = initialBackoffSeconds << Math.min(attempts - 1, 20);
+        return Math.min(backoff, maxBackoffSeconds);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+}
@@ -0,0 +1,64 @@
+package com.prakruthi.homestay.service;
+
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Renders email templates. The shared layout is rendered once at startup around a
+ * marker fragment and split in two, so each email only evaluates the template's own
+ * "content" fragment and is wrapped in the precomputed head and tail. It has its own
+ * engine whose parsed templates are cached for good, whatever spring.thymeleaf.cache
+ * is set to for the web views.
+ */
+@Component
+public class EmailRenderer {
+
+    public static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MMM d, yyyy");
+
+    private static final String LAYOUT_TEMPLATE = "layout/base";
+    // Its "content" fragment is just the marker text below
+    private static final String MARKER_TEMPLATE = "layout/content-marker";
+    private static final String CONTENT_MARKER = "@@EMAIL_CONTENT@@";
+    private static final Set<String> CONTENT_FRAGMENT = Set.of("content");
+
+    private final SpringTemplateEngine templateEngine;
+    private final String layoutHead;
+    private final String layoutTail;
+
+    public EmailRenderer() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+        resolver.setCacheTTLMs(null);
+
+        this.templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+
+        Context context = new Context();
+        context.setVariable("contentTemplate", MARKER_TEMPLATE);
+        String layout = templateEngine.process(LAYOUT_TEMPLATE, context);
+        int marker = layout.indexOf(CONTENT_MARKER);
+        if (marker < 0) {
+            throw new IllegalStateException("Email layout did not render its content fragment");
+        }
+        this.layoutHead = layout.substring(0, marker);
+        this.layoutTail = layout.substring(marker + CONTENT_MARKER.length());
+    }
+
+    public String render(String template, Map<String, Object> variables) {
+        Context context = new Context();
+        context.setVariables(variables);
+        String content = templateEngine.process(template, CONTENT_FRAGMENT, context);
+        return layoutHead + content + layoutTail;
+    }
+}
@@ -8,10 +8,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
 
-import java.time.format.DateTimeFormatter;
 import java.util.Map;
 
 @Service
@@ -21,7 +18,7 @@ public class EmailService {
     private JavaMailSender mailSender;
 
     @Autowired
-    private TemplateEngine templateEngine;
+    private EmailRenderer emailRenderer;
 
     @Value("${app.email.from}")
     private String fromEmail;
@@ -30,79 +27,74 @@ public class EmailService {
     private String fromName;
 
     public void sendBookingConfirmation(Booking booking) {
-        Context context = new Context();
-        context.setVariables(Map.of(
+        Map<String, Object> variables = Map.of(
             "booking", booking,
-            "checkInDate", booking.getCheckInDate().format(DateTimeFormatter.ofPattern("MMM d, yyyy")),
-            "checkOutDate", booking.getCheckOutDate().format(DateTimeFormatter.ofPattern("MMM d, yyyy")),
+            "checkInDate", booking.getCheckInDate().format(EmailRenderer.DATE_FORMAT),
+            "checkOutDate", booking.getCheckOutDate().format(EmailRenderer.DATE_FORMAT),
             "checkInTime", "1:00 PM",
             "checkOutTime", "11:00 AM",
             "guestName", booking.getGuestDetails().getName(),
             "bookingId", booking.getBookingId(),
             "totalAmount", booking.getTotalAmount(),
             "roomName", booking.getRoom().getName()
-        ));
+        );
 
         String subject = "Booking Confirmation - Prakruthi Homestay";
-        String content = templateEngine.process("booking-confirmation", context);
+        String content = emailRenderer.render("booking-confirmation", variables);
         sendEmail(booking.getGuestDetails().getEmail(), subject, content);
     }
 
     public void sendBookingCancellation(Booking booking) {
-        Context context = new Context();
-        context.setVariables(Map.of(
+        Map<String, Object> variables = Map.of(
             "booking", booking,
             "guestName", booking.getGuestDetails().getName(),
             "bookingId", booking.getBookingId(),
             "refundAmount", booking.getRefundDetails() != null && !booking.getRefundDetails().isEmpty() 
                 ? booking.getRefundDetails().get(0).getAmount() 
                 : "0"
-        ));
+        );
 
         String subject = "Booking Cancellation - Prakruthi Homestay";
-        String content = templateEngine.process("booking-cancellation", context);
+        String content = emailRenderer.render("booking-cancellation", variables);
         sendEmail(booking.getGuestDetails().getEmail(), subject, content);
     }
 
     public void sendCheckInReminder(Booking booking) {
-        Context context = new Context();
-        context.setVariables(Map.of(
+        Map<String, Object> variables = Map.of(
             "booking", booking,
             "guestName", booking.getGuestDetails().getName(),
-            "checkInDate", booking.getCheckInDate().format(DateTimeFormatter.ofPattern("MMM d, yyyy")),
+            "checkInDate", booking.getCheckInDate().format(EmailRenderer.DATE_FORMAT),
             "checkInTime", "1:00 PM",
             "address", "Prakruthi Homestay, [Your Full Address]",
             "contactNumber", "+91 98765 43210"
-        ));
+        );
 
         String subject = "Check-in Reminder - Prakruthi Homestay";
-        String content = templateEngine.process("check-in-reminder", context);
+        String content = emailRenderer.render("check-in-reminder", variables);
         sendEmail(booking.getGuestDetails().getEmail(), subject, content);
     }
 
     public void sendCheckOutReminder(Booking booking) {
-        Context context = new Context();
-        context.setVariables(Map.of(
+        Map<String, Object> variables = Map.of(
             "booking", booking,
             "guestName", booking.getGuestDetails().getName(),
-            "checkOutDate", booking.getCheckOutDate().format(DateTimeFormatter.ofPattern("MMM d, yyyy")),
+            "checkOutDate", booking.getCheckOutDate().format(EmailRenderer.DATE_FORMAT),
             "checkOutTime", "11:00 AM"
-        ));
+        );
 
         String subject = "Check-out Reminder - Prakruthi Homestay";
-        String content = templateEngine.process("check-out-reminder", context);
+        String content = emailRenderer.render("check-out-reminder", variables);
         sendEmail(booking.getGuestDetails().getEmail(), subject, content);
     }
 
     public void sendPasswordReset(String email, String resetToken) {
-        Context context = new Context();
-        context.setVariables(Map.of(
+        Map<String, Object> variables = Map.of(
             "resetLink", "http://localhost:3000/reset-password?token=" + resetToken,
             "expiryHours", "24"
-        ));
+        );
 
         String subject = "Password Reset - Prakruthi Homestay";
-        String content = templateEngine.process("password-reset", context);
+        String content = emailRenderer.render("password-reset", variables);
         sendEmail(email, subject, content);
     }
 
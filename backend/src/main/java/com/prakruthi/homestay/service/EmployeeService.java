@@ -1,14 +1,22 @@
 package com.prakruthi.homestay.service;
 
+import com.prakruthi.homestay.model.CursorPage;
 import com.prakruthi.homestay.model.User;
+import com.prakruthi.homestay.repository.KeysetPaginator;
+import com.prakruthi.homestay.repository.PartialUpdateRepository;
 import com.prakruthi.homestay.repository.UserRepository;
+import com.prakruthi.homestay.security.PasswordHashingPool;
+import com.prakruthi.homestay.security.UserPrincipalCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.BooleanOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 @Service
 public class EmployeeService {
@@ -19,8 +27,21 @@ public class EmployeeService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
-    public List<User> getAllEmployees() {
-        return userRepository.findByRoleIn(List.of("MANAGER", "EMPLOYEE"));
+    @Autowired
+    private UserPrincipalCache principalCache;
+
+    @Autowired
+    private PartialUpdateRepository partialUpdates;
+
+    @Autowired
+    private KeysetPaginator keysetPaginator;
+
+    @Autowired
+    private PasswordHashingPool hashingPool;
+
+    public CursorPage<User> getEmployeesPage(String cursor, Integer limit, boolean includeTotal) {
+        return keysetPaginator.page(User.class, Criteria.where("role").in("MANAGER", "EMPLOYEE"),
+                cursor, limit, includeTotal);
     }
 
     @Transactional
@@ -32,7 +53,8 @@ public class EmployeeService {
             throw new RuntimeException("Email already registered");
         }
 
-        employee.setPassword(passwordEncoder.encode(employee.getPassword()));
+        String rawPassword = employee.getPassword();
+        employee.setPassword(hashingPool.run(() -> passwordEncoder.encode(rawPassword)));
         employee.setEnabled(true);
         employee.setCreatedAt(LocalDateTime.now());
         employee.setUpdatedAt(LocalDateTime.now());
@@ -40,22 +62,28 @@ public class EmployeeService {
         return userRepository.save(employee);
     }
 
+    /**
+     * Writes only the editable fields. If the request carries the version the admin
+     * loaded, the update is rejected when someone else changed the employee since.
+     */
     @Transactional
     public User updateEmployee(String id, User employeeDetails) {
-        User employee = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Employee not found"));
-
-        employee.setFullName(employeeDetails.getFullName());
-        employee.setEmail(employeeDetails.getEmail());
-        employee.setPhoneNumber(employeeDetails.getPhoneNumber());
-        employee.setRole(employeeDetails.getRole());
+        Update update = new Update()
+                .set("fullName", employeeDetails.getFullName())
+                .set("email", employeeDetails.getEmail())
+                .set("phoneNumber", employeeDetails.getPhoneNumber())
+                .set("role", employeeDetails.getRole());
 
         if (employeeDetails.getPassword() != null && !employeeDetails.getPassword().isEmpty()) {
-            employee.setPassword(passwordEncoder.encode(employeeDetails.getPassword()));
+            update.set("password", hashingPool.run(() -> passwordEncoder.encode(employeeDetails.getPassword())));
         }
 
-        employee.setUpdatedAt(LocalDateTime.now());
-        return userRepository.save(employee);
+        User saved = partialUpdates.updateById(User.class, id, employeeDetails.getVersion(), update);
+        if (saved == null) {
+            throw new RuntimeException("Employee not found");
+        }
+        principalCache.evict(saved.getUsername());
+        return saved;
     }
 
     @Transactional
@@ -68,25 +96,27 @@ public class EmployeeService {
         }
 
         userRepository.delete(employee);
+        principalCache.evict(employee.getUsername());
     }
 
     @Transactional
     public void resetPassword(String id, String newPassword) {
-        User employee = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Employee not found"));
-
-        employee.setPassword(passwordEncoder.encode(newPassword));
-        employee.setUpdatedAt(LocalDateTime.now());
-        userRepository.save(employee);
+        User employee = partialUpdates.updateById(User.class, id, null,
+                new Update().set("password", hashingPool.run(() -> passwordEncoder.encode(newPassword))));
+        if (employee == null) {
+            throw new RuntimeException("Employee not found");
+        }
+        principalCache.evict(employee.getUsername());
     }
 
     @Transactional
     public void toggleEmployeeStatus(String id) {
-        User employee = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Employee not found"));
-
-        employee.setEnabled(!employee.isEnabled());
-        employee.setUpdatedAt(LocalDateTime.now());
-        userRepository.save(employee);
+        // Flipped server-side, so two admins toggling at once cannot both write the same value
+        User employee = partialUpdates.updateById(User.class, id, null,
+                AggregationUpdate.update().set("enabled").toValue(BooleanOperators.Not.not("enabled")));
+        if (employee == null) {
+            throw new RuntimeException("Employee not found");
+        }
+        principalCache.evict(employee.getUsername());
     }
 }
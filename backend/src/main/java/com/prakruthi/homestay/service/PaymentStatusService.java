@@ -0,0 +1,123 @@
+package com.prakruthi.homestay.service;
+
+import com.prakruthi.homestay.model.RazorpayPayment;
+import com.razorpay.RazorpayException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache of payment status for the payment screen's polling. Razorpay
+ * is only asked on a miss or once an entry goes stale, and webhooks invalidate the
+ * payment they report on. Entries are only ever filled from Razorpay itself, never
+ * from event payloads that may be older, and a fetch that overlaps an invalidation is
+ * not cached. Payments in a final state stay fresh for much longer than in-flight ones.
+ */
+@Service
+public class PaymentStatusService {
+
+    private static final Set<String> FINAL_STATUSES = Set.of("captured", "failed", "refunded");
+
+    private record Entry(RazorpayPayment payment, long expiresAt) {
+    }
+
+    @Autowired
+    private RazorpayService razorpayService;
+
+    @Value("${app.payments.status-cache.ttl-seconds:5}")
+    private long ttlSeconds;
+
+    @Value("${app.payments.status-cache.final-ttl-seconds:3600}")
+    private long finalTtlSeconds;
+
+    @Value("${app.payments.status-cache.max-size:10000}")
+    private int maxSize;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    // Concurrent misses for the same payment share one Razorpay call
+    private final Map<String, CompletableFuture<RazorpayPayment>> inFlight = new ConcurrentHashMap<>();
+
+    // Bumped by invalidate, so a fetch that raced with a webhook is returned but not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public RazorpayPayment getPayment(String paymentId) throws RazorpayException {
+        Entry entry = entries.get(paymentId);
+        if (entry != null && entry.expiresAt() > System.currentTimeMillis()) {
+            return entry.payment();
+        }
+
+        CompletableFuture<RazorpayPayment> fetch = new CompletableFuture<>();
+        CompletableFuture<RazorpayPayment> running = inFlight.putIfAbsent(paymentId, fetch);
+        if (running != null) {
+            return await(running);
+        }
+
+        try {
+            long expected = generation.get();
+            RazorpayPayment payment = razorpayService.fetchPaymentDetails(paymentId);
+            put(payment, expected);
+            fetch.complete(payment);
+            return payment;
+        } catch (RazorpayException | RuntimeException e) {
+            fetch.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(paymentId, fetch);
+        }
+    }
+
+    public void update(RazorpayPayment payment) {
+        put(payment, generation.get());
+    }
+
+    public void invalidate(String paymentId) {
+        generation.incrementAndGet();
+        entries.remove(paymentId);
+    }
+
+    private void put(RazorpayPayment payment, long expected) {
+        if (generation.get() != expected) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (entries.size() >= maxSize) {
+            entries.values().removeIf(entry -> entry.expiresAt() <= now);
+            if (entries.size() >= maxSize) {
+                entries.clear();
+            }
+        }
+
+        long ttl = FINAL_STATUSES.contains(payment.status()) ? finalTtlSeconds : ttlSeconds;
+        Entry entry = new Entry(payment, now + ttl * 1000);
+        entries.put(payment.id(), entry);
+        // An invalidate between the check and the put has already removed its entry; take this one back out
+        if (generation.get() != expected) {
+            entries.remove(payment.id(), entry);
+        }
+    }
+
+    private static RazorpayPayment await(CompletableFuture<RazorpayPayment> fetch) throws RazorpayException {
+        try {
+            return fetch.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RazorpayException("Interrupted while waiting for the payment status");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RazorpayException razorpay) {
+                throw razorpay;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new RazorpayException(e.getCause().getMessage());
+        }
+    }
+}
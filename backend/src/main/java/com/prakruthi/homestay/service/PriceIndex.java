@@ -0,0 +1,149 @@
+package com.prakruthi.homestay.service;
+
+import com.prakruthi.homestay.model.PriceDay;
+import com.prakruthi.homestay.model.Room;
+import com.prakruthi.homestay.repository.DailyPriceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-room cumulative nightly prices in paise over the booking horizon, so a stay
+ * total is the difference of two array entries. Rooms are loaded on first use.
+ */
+@Component
+public class PriceIndex {
+
+    @Autowired
+    private DailyPriceRepository dailyPriceRepository;
+
+    @Autowired
+    private RoomCatalog roomCatalog;
+
+    private final int horizonDays;
+
+    private volatile LocalDate horizonStart = LocalDate.now();
+    private final Map<String, RoomPrices> rooms = new ConcurrentHashMap<>();
+
+    public PriceIndex(
+            @Value("${app.booking.max-advance-days}") int maxAdvanceDays,
+            @Value("${app.villa.max-stay}") int maxStay) {
+        this.horizonDays = maxAdvanceDays + maxStay + 1;
+    }
+
+    /**
+     * @param nightly price of each day in paise
+     * @param prefix  prefix[i] is the sum of nightly[0..i), so prefix has one more entry
+     */
+    private record RoomPrices(long[] nightly, long[] prefix) {
+    }
+
+    public boolean covers(LocalDate startDate, LocalDate endDate) {
+        rollOverIfNeeded();
+        LocalDate start = horizonStart;
+        return !startDate.isBefore(start) && endDate.isBefore(start.plusDays(horizonDays));
+    }
+
+    /**
+     * Total for the inclusive range, in paise.
+     */
+    public long totalPaise(String roomId, LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            return 0;
+        }
+        RoomPrices prices = rooms.computeIfAbsent(roomId, this::load);
+        return prices.prefix()[indexOf(endDate) + 1] - prices.prefix()[indexOf(startDate)];
+    }
+
+    /**
+     * Nightly prices in paise for the inclusive range. Callers must check {@link #covers} first.
+     */
+    public long[] nightlyPaise(String roomId, LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            return new long[0];
+        }
+        RoomPrices prices = rooms.computeIfAbsent(roomId, this::load);
+        return Arrays.copyOfRange(prices.nightly(), indexOf(startDate), indexOf(endDate) + 1);
+    }
+
+    public synchronized void update(String roomId, LocalDate startDate, LocalDate endDate, BigDecimal price) {
+        RoomPrices current = rooms.get(roomId);
+        if (current == null) {
+            // Drop any load that raced with the write; the next read picks up the new prices
+            rooms.remove(roomId);
+            return;
+        }
+
+        LocalDate start = horizonStart;
+        LocalDate horizonEnd = start.plusDays(horizonDays - 1);
+        LocalDate from = startDate.isBefore(start) ? start : startDate;
+        LocalDate to = endDate.isAfter(horizonEnd) ? horizonEnd : endDate;
+        if (from.isAfter(to)) {
+            return;
+        }
+
+        long[] nightly = current.nightly().clone();
+        long paise = toPaise(price);
+        for (int i = indexOf(from); i <= indexOf(to); i++) {
+            nightly[i] = paise;
+        }
+        // Entries before the first changed day are unaffected
+        long[] prefix = current.prefix().clone();
+        for (int i = indexOf(from); i < horizonDays; i++) {
+            prefix[i + 1] = prefix[i] + nightly[i];
+        }
+        rooms.put(roomId, new RoomPrices(nightly, prefix));
+    }
+
+    public void invalidate(String roomId) {
+        rooms.remove(roomId);
+    }
+
+    public static BigDecimal fromPaise(long paise) {
+        return BigDecimal.valueOf(paise, 2);
+    }
+
+    public static long toPaise(BigDecimal amount) {
+        return amount == null ? 0 : amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private RoomPrices load(String roomId) {
+        Room room = roomCatalog.getRoom(roomId);
+        LocalDate start = horizonStart;
+
+        long[] nightly = new long[horizonDays];
+        Arrays.fill(nightly, toPaise(room.getBasePrice()));
+        for (PriceDay price : dailyPriceRepository.findDaysByRoomIdAndDateBetweenOrderByDateAsc(roomId, start, start.plusDays(horizonDays - 1))) {
+            nightly[(int) ChronoUnit.DAYS.between(start, price.date())] = toPaise(price.price());
+        }
+
+        long[] prefix = new long[horizonDays + 1];
+        for (int i = 0; i < horizonDays; i++) {
+            prefix[i + 1] = prefix[i] + nightly[i];
+        }
+        return new RoomPrices(nightly, prefix);
+    }
+
+    private int indexOf(LocalDate date) {
+        return (int) ChronoUnit.DAYS.between(horizonStart, date);
+    }
+
+    private void rollOverIfNeeded() {
+        if (LocalDate.now().isAfter(horizonStart)) {
+            synchronized (this) {
+                if (LocalDate.now().isAfter(horizonStart)) {
+                    rooms.clear();
+                    horizonStart = LocalDate.now();
+                }
+            }
+        }
+    }
+}
@@ -1,10 +1,11 @@
 package com.prakruthi.homestay.service;
 
+import com.prakruthi.homestay.model.Booking;
 import com.prakruthi.homestay.model.DailyPrice;
+import com.prakruthi.homestay.model.PriceDay;
 import com.prakruthi.homestay.model.Room;
 import com.prakruthi.homestay.model.User;
 import com.prakruthi.homestay.repository.DailyPriceRepository;
-import com.prakruthi.homestay.repository.RoomRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -12,7 +13,10 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class PricingService {
@@ -21,35 +25,42 @@ public class PricingService {
     private DailyPriceRepository dailyPriceRepository;
 
     @Autowired
-    private RoomRepository roomRepository;
+    private RoomCatalog roomCatalog;
 
-    public List<DailyPrice> getPricing(String roomId, LocalDate startDate, LocalDate endDate) {
-        return dailyPriceRepository.findByRoomIdAndDateBetween(roomId, startDate, endDate);
+    @Autowired
+    private PriceIndex priceIndex;
+
+    // Seasonal calendars keyed by roomId + reason, dropped whenever the room's pricing changes
+    private final Map<String, List<DailyPrice>> seasonalCache = new ConcurrentHashMap<>();
+
+    public List<PriceDay> getPricing(String roomId, LocalDate startDate, LocalDate endDate) {
+        return dailyPriceRepository.findDaysByRoomIdAndDateBetweenOrderByDateAsc(roomId, startDate, endDate);
     }
 
     @Transactional
     public void setDailyPrice(String roomId, LocalDate date, BigDecimal price, 
                             DailyPrice.PriceReason reason, User updatedBy) {
-        Room room = roomRepository.findById(roomId)
-            .orElseThrow(() -> new RuntimeException("Room not found"));
+        Room room = roomCatalog.getRoom(roomId);
 
         DailyPrice dailyPrice = dailyPriceRepository.findByRoomIdAndDate(roomId, date)
             .orElse(new DailyPrice());
 
         dailyPrice.setRoom(room);
+        dailyPrice.setRoomId(roomId);
         dailyPrice.setDate(date);
         dailyPrice.setPrice(price);
         dailyPrice.setReason(reason);
         dailyPrice.setUpdatedBy(updatedBy);
 
         dailyPriceRepository.save(dailyPrice);
+        priceIndex.update(roomId, date, date, price);
+        evictSeasonalPricing(roomId);
     }
 
     @Transactional
     public void setBulkPricing(String roomId, LocalDate startDate, LocalDate endDate, 
                              BigDecimal price, DailyPrice.PriceReason reason, User updatedBy) {
-        Room room = roomRepository.findById(roomId)
-            .orElseThrow(() -> new RuntimeException("Room not found"));
+        Room room = roomCatalog.getRoom(roomId);
 
         List<DailyPrice> priceList = new ArrayList<>();
         LocalDate currentDate = startDate;
@@ -57,6 +68,7 @@ public class PricingService {
         while (!currentDate.isAfter(endDate)) {
             DailyPrice dailyPrice = new DailyPrice();
             dailyPrice.setRoom(room);
+            dailyPrice.setRoomId(roomId);
             dailyPrice.setDate(currentDate);
             dailyPrice.setPrice(price);
             dailyPrice.setReason(reason);
@@ -67,21 +79,46 @@ public class PricingService {
 
         dailyPriceRepository.deleteByRoomIdAndDateBetween(roomId, startDate, endDate);
         dailyPriceRepository.saveAll(priceList);
+        priceIndex.update(roomId, startDate, endDate, price);
+        evictSeasonalPricing(roomId);
     }
 
     public BigDecimal calculateTotalPrice(String roomId, LocalDate startDate, LocalDate endDate) {
-        List<DailyPrice> prices = dailyPriceRepository.findPricesForDateRange(roomId, startDate, endDate);
-        Room room = roomRepository.findById(roomId)
-            .orElseThrow(() -> new RuntimeException("Room not found"));
+        if (priceIndex.covers(startDate, endDate)) {
+            return PriceIndex.fromPaise(priceIndex.totalPaise(roomId, startDate, endDate));
+        }
 
-        return prices.stream()
-            .map(DailyPrice::getPrice)
+        return getNightlyRates(roomId, startDate, endDate).stream()
+            .map(Booking.DailyRate::getPrice)
             .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
 
+    public List<Booking.DailyRate> getNightlyRates(String roomId, LocalDate startDate, LocalDate endDate) {
+        Room room = roomCatalog.getRoom(roomId);
+
+        Map<LocalDate, BigDecimal> overrides = new HashMap<>();
+        for (PriceDay price : dailyPriceRepository.findDaysByRoomIdAndDateBetweenOrderByDateAsc(roomId, startDate, endDate)) {
+            overrides.put(price.date(), price.price());
+        }
+
+        List<Booking.DailyRate> rates = new ArrayList<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            Booking.DailyRate rate = new Booking.DailyRate();
+            rate.setDate(date);
+            rate.setPrice(overrides.getOrDefault(date, room.getBasePrice()));
+            rates.add(rate);
+        }
+        return rates;
+    }
+
     public List<DailyPrice> getSeasonalPricing(String roomId, DailyPrice.PriceReason reason) {
-        return dailyPriceRepository.findAll().stream()
-            .filter(price -> price.getRoom().getId().equals(roomId) && price.getReason() == reason)
-            .toList();
+        return seasonalCache.computeIfAbsent(roomId + ":" + reason, key ->
+            List.copyOf(dailyPriceRepository.findByRoomIdAndReasonOrderByDateAsc(roomId, reason)));
+    }
+
+    private void evictSeasonalPricing(String roomId) {
+        for (DailyPrice.PriceReason reason : DailyPrice.PriceReason.values()) {
+            seasonalCache.remove(roomId + ":" + reason);
+        }
     }
 }
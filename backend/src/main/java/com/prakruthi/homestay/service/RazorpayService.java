@@ -1,39 +1,60 @@
 package com.prakruthi.homestay.service;
 
 import com.prakruthi.homestay.model.Booking;
+import com.prakruthi.homestay.model.RazorpayOrder;
+import com.prakruthi.homestay.model.RazorpayPayment;
+import com.prakruthi.homestay.model.RazorpayRefund;
+import com.razorpay.Entity;
 import com.razorpay.Order;
+import com.razorpay.Payment;
 import com.razorpay.RazorpayClient;
 import com.razorpay.RazorpayException;
+import com.razorpay.Refund;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
 import java.math.BigDecimal;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
 
+/**
+ * The app's single gateway to Razorpay. The client is created once and shared, and
+ * signatures are checked locally with per-thread Mac instances keyed at first use.
+ */
 @Service
 public class RazorpayService {
 
     private final String keyId;
-    private final String keySecret;
+    private final boolean webhookSecretConfigured;
     private final RazorpayClient razorpayClient;
 
+    // Mac is not thread-safe, so each thread keeps its own initialised instance
+    private final ThreadLocal<Mac> paymentMac;
+    private final ThreadLocal<Mac> webhookMac;
+
     public RazorpayService(
             @Value("${razorpay.key.id}") String keyId,
-            @Value("${razorpay.key.secret}") String keySecret) throws RazorpayException {
+            @Value("${razorpay.key.secret}") String keySecret,
+            @Value("${razorpay.webhook.secret:}") String webhookSecret) throws RazorpayException {
         this.keyId = keyId;
-        this.keySecret = keySecret;
+        this.webhookSecretConfigured = !webhookSecret.isEmpty();
         this.razorpayClient = new RazorpayClient(keyId, keySecret);
+        this.paymentMac = ThreadLocal.withInitial(() -> hmacSha256(keySecret));
+        this.webhookMac = ThreadLocal.withInitial(() -> hmacSha256(webhookSecret));
     }
 
-    public Map<String, Object> createOrder(Booking booking) throws RazorpayException {
+    public RazorpayOrder createOrder(Booking booking) throws RazorpayException {
         JSONObject orderRequest = new JSONObject();
         
-        // Convert amount to paise (Razorpay expects amount in smallest currency unit)
-        int amountInPaise = booking.getTotalAmount().multiply(new BigDecimal("100")).intValue();
-        
-        orderRequest.put("amount", amountInPaise);
+        // Razorpay expects amount in smallest currency unit
+        orderRequest.put("amount", PriceIndex.toPaise(booking.getTotalAmount()));
         orderRequest.put("currency", "INR");
         orderRequest.put("receipt", "booking_" + booking.getBookingId());
         
@@ -46,51 +67,87 @@ public class RazorpayService {
         orderRequest.put("notes", notes);
 
         Order order = razorpayClient.orders.create(orderRequest);
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("orderId", order.get("id"));
-        response.put("amount", order.get("amount"));
-        response.put("currency", order.get("currency"));
-        response.put("keyId", keyId);
-        
-        return response;
+        return new RazorpayOrder(text(order, "id"), amount(order), text(order, "currency"), keyId);
     }
 
-    public boolean verifyPaymentSignature(String orderId, String paymentId, String signature) 
-            throws RazorpayException {
-        JSONObject attributes = new JSONObject();
-        attributes.put("razorpay_order_id", orderId);
-        attributes.put("razorpay_payment_id", paymentId);
-        attributes.put("razorpay_signature", signature);
+    /**
+     * Checkout signs "orderId|paymentId" with the key secret; recompute it locally.
+     */
+    public boolean verifyPaymentSignature(String orderId, String paymentId, String signature) {
+        if (orderId == null || paymentId == null || signature == null) {
+            return false;
+        }
+        return matches(paymentMac.get(), orderId + "|" + paymentId, signature);
+    }
 
-        try {
-            razorpayClient.utility.verifyPaymentSignature(attributes);
-            return true;
-        } catch (RazorpayException e) {
+    /**
+     * Checks X-Razorpay-Signature, the hex HMAC-SHA256 of the raw request body keyed
+     * with the webhook secret. Rejects everything if no webhook secret is configured.
+     */
+    public boolean verifyWebhookSignature(String payload, String signature) {
+        if (!webhookSecretConfigured || signature == null) {
             return false;
         }
+        return matches(webhookMac.get(), payload, signature);
     }
 
-    public void processRefund(String paymentId, BigDecimal amount) throws RazorpayException {
+    public RazorpayRefund processRefund(String paymentId, BigDecimal amount) throws RazorpayException {
         JSONObject refundRequest = new JSONObject();
-        int refundAmount = amount.multiply(new BigDecimal("100")).intValue();
-        refundRequest.put("amount", refundAmount);
+        refundRequest.put("amount", PriceIndex.toPaise(amount));
         refundRequest.put("speed", "normal");
 
-        razorpayClient.payments.refund(paymentId, refundRequest);
+        Refund refund = razorpayClient.payments.refund(paymentId, refundRequest);
+        return new RazorpayRefund(text(refund, "id"), paymentId, amount(refund), text(refund, "status"));
     }
 
-    public Map<String, Object> fetchPaymentDetails(String paymentId) throws RazorpayException {
-        com.razorpay.Payment payment = razorpayClient.payments.fetch(paymentId);
-        
-        Map<String, Object> paymentDetails = new HashMap<>();
-        paymentDetails.put("id", payment.get("id"));
-        paymentDetails.put("amount", payment.get("amount"));
-        paymentDetails.put("status", payment.get("status"));
-        paymentDetails.put("method", payment.get("method"));
-        paymentDetails.put("email", payment.get("email"));
-        paymentDetails.put("contact", payment.get("contact"));
-        
-        return paymentDetails;
+    public RazorpayPayment fetchPaymentDetails(String paymentId) throws RazorpayException {
+        return toPayment(razorpayClient.payments.fetch(paymentId));
+    }
+
+    public List<RazorpayPayment> fetchOrderPayments(String orderId) throws RazorpayException {
+        List<RazorpayPayment> payments = new ArrayList<>();
+        for (Payment payment : razorpayClient.orders.fetchPayments(orderId)) {
+            payments.add(toPayment(payment));
+        }
+        return payments;
+    }
+
+    private static RazorpayPayment toPayment(Payment payment) {
+        return new RazorpayPayment(
+            text(payment, "id"),
+            text(payment, "order_id"),
+            amount(payment),
+            text(payment, "status"),
+            text(payment, "method"),
+            text(payment, "email"),
+            text(payment, "contact"));
+    }
+
+    private static boolean matches(Mac mac, String data, String signature) {
+        byte[] expected = HexFormat.of().formatHex(mac.doFinal(data.getBytes(StandardCharsets.UTF_8)))
+            .getBytes(StandardCharsets.UTF_8);
+        return MessageDigest.isEqual(expected, signature.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Mac hmacSha256(String secret) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            // SecretKeySpec rejects an empty key; an unconfigured secret is never used to verify
+            byte[] key = secret.isEmpty() ? new byte[1] : secret.getBytes(StandardCharsets.UTF_8);
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String text(Entity entity, String key) {
+        Object value = entity.has(key) ? entity.get(key) : null;
+        return value == null || value == JSONObject.NULL ? null : value.toString();
+    }
+
+    private static long amount(Entity entity) {
+        Object value = entity.has("amount") ? entity.get("amount") : null;
+        return value instanceof Number number ? number.longValue() : 0;
     }
 }
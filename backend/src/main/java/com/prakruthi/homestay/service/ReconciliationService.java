@@ -0,0 +1,276 @@
+package com.prakruthi.homestay.service;
+
+import com.prakruthi.homestay.model.Booking;
+import com.prakruthi.homestay.model.EmailOutbox;
+import com.prakruthi.homestay.model.RazorpayPayment;
+import com.prakruthi.homestay.model.ReconciliationReport;
+import com.prakruthi.homestay.repository.BookingRepository;
+import com.prakruthi.homestay.repository.ReconciliationReportRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Compares bookings with what Razorpay recorded for their orders. Each run only
+ * streams bookings updated since the previous run's watermark, looks their orders up
+ * with bounded concurrency, confirms bookings whose payment was captured while they
+ * were still pending, and reports everything else for manual follow-up. Bookings
+ * whose order could not be fetched are carried into the next run and checked again.
+ */
+@Service
+public class ReconciliationService {
+
+    // Bookings a captured payment is expected to belong to
+    private static final Set<Booking.BookingStatus> LIVE_STATUSES = EnumSet.of(
+        Booking.BookingStatus.CONFIRMED,
+        Booking.BookingStatus.CHECKED_IN,
+        Booking.BookingStatus.CHECKED_OUT,
+        Booking.BookingStatus.COMPLETED);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ReconciliationReportRepository reportRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private RazorpayService razorpayService;
+
+    @Autowired
+    private PaymentStatusService paymentStatusService;
+
+    @Autowired
+    private EmailOutboxService emailOutbox;
+
+    // Re-scan a little before the watermark so bookings still settling at the last run are seen again
+    @Value("${app.reconciliation.lookback-minutes:30}")
+    private long lookbackMinutes;
+
+    @Value("${app.reconciliation.initial-lookback-days:7}")
+    private long initialLookbackDays;
+
+    private final int concurrency;
+    private final ExecutorService fetchers;
+    // Manual runs are started here so the request returns straight away
+    private final ExecutorService runner;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public ReconciliationService(@Value("${app.reconciliation.concurrency:4}") int concurrency) {
+        this.concurrency = concurrency;
+        this.fetchers = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "reconciliation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.runner = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reconciliation-run");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public ReconciliationReport getLatestReport() {
+        return reportRepository.findFirstByOrderByUntilDesc().orElse(null);
+    }
+
+    /**
+     * Starts a run in the background. Returns false if a run is already in progress.
+     */
+    public boolean startReconcile() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            runner.execute(() -> {
+                try {
+                    reconcileNow();
+                } catch (RuntimeException e) {
+                    System.err.println("Reconciliation failed: " + e.getMessage());
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    @Scheduled(cron = "${app.reconciliation.cron:0 */30 * * * *}")
+    public void reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            System.out.println("Skipping scheduled reconciliation: a run is already in progress");
+            return;
+        }
+        try {
+            reconcileNow();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private ReconciliationReport reconcileNow() {
+        LocalDateTime until = LocalDateTime.now();
+        ReconciliationReport last = reportRepository.findFirstByOrderByUntilDesc().orElse(null);
+        LocalDateTime from = last != null
+            ? last.getUntil().minusMinutes(lookbackMinutes)
+            : until.minusDays(initialLookbackDays);
+
+        ReconciliationReport report = new ReconciliationReport();
+        report.setFrom(from);
+        report.setUntil(until);
+        report.setStartedAt(until);
+
+        Queue<ReconciliationReport.Discrepancy> discrepancies = new ConcurrentLinkedQueue<>();
+        int scanned;
+        try (Stream<Booking> bookings = bookingRepository.streamPaymentChanges(from, until)) {
+            scanned = checkAll(bookings, discrepancies);
+        }
+        // Orders that could not be fetched last time are checked again; the ones updated
+        // since are already in this window
+        if (last != null && !last.getRetryBookingIds().isEmpty()) {
+            try (Stream<Booking> retries = bookingRepository.streamPaymentChecks(last.getRetryBookingIds(), from)) {
+                scanned += checkAll(retries, discrepancies);
+            }
+        }
+
+        // Outstanding refunds are reported by every run until they are processed
+        try (Stream<Booking> refundsDue = bookingRepository.streamRefundsDue()) {
+            refundsDue.forEach(booking -> discrepancies.add(discrepancy(booking, booking.getRazorpayPaymentId(),
+                ReconciliationReport.Issue.REFUND_DUE,
+                "Payment captured for " + booking.getStatus() + " booking on " + booking.getRefundDueAt())));
+        }
+
+        List<ReconciliationReport.Discrepancy> found = new ArrayList<>(discrepancies);
+        report.setScanned(scanned);
+        report.setFixed((int) found.stream().filter(ReconciliationReport.Discrepancy::isFixed).count());
+        report.setErrors((int) found.stream()
+            .filter(discrepancy -> discrepancy.getIssue() == ReconciliationReport.Issue.FETCH_FAILED)
+            .count());
+        report.setRetryBookingIds(found.stream()
+            .filter(discrepancy -> discrepancy.getIssue() == ReconciliationReport.Issue.FETCH_FAILED)
+            .map(ReconciliationReport.Discrepancy::getBookingId)
+            .distinct()
+            .toList());
+        report.setDiscrepancies(found);
+        report.setFinishedAt(LocalDateTime.now());
+        return reportRepository.save(report);
+    }
+
+    // Checks each booking on the fetcher pool, at most `concurrency` at a time; returns how many were read
+    private int checkAll(Stream<Booking> bookings, Queue<ReconciliationReport.Discrepancy> discrepancies) {
+        Semaphore inFlight = new Semaphore(concurrency);
+        int scanned = 0;
+        try {
+            Iterator<Booking> iterator = bookings.iterator();
+            while (iterator.hasNext()) {
+                Booking booking = iterator.next();
+                scanned++;
+                inFlight.acquireUninterruptibly();
+                fetchers.execute(() -> {
+                    try {
+                        ReconciliationReport.Discrepancy discrepancy = check(booking);
+                        if (discrepancy != null) {
+                            discrepancies.add(discrepancy);
+                        }
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        } finally {
+            inFlight.acquireUninterruptibly(concurrency);
+        }
+        return scanned;
+    }
+
+    private ReconciliationReport.Discrepancy check(Booking booking) {
+        List<RazorpayPayment> payments;
+        try {
+            payments = razorpayService.fetchOrderPayments(booking.getRazorpayOrderId());
+        } catch (Exception e) {
+            return discrepancy(booking, null, ReconciliationReport.Issue.FETCH_FAILED, e.getMessage());
+        }
+
+        RazorpayPayment captured = payments.stream()
+            .filter(payment -> "captured".equals(payment.status()) || "refunded".equals(payment.status()))
+            .findFirst()
+            .orElse(null);
+        boolean markedPaid = booking.getPaymentStatus() == Booking.PaymentStatus.PAID;
+
+        if (captured == null) {
+            return markedPaid
+                ? discrepancy(booking, booking.getRazorpayPaymentId(), ReconciliationReport.Issue.CONFIRMED_WITHOUT_CAPTURE,
+                    "No captured payment on the order")
+                : null;
+        }
+        paymentStatusService.update(captured);
+
+        if (booking.getRazorpayPaymentId() != null && !booking.getRazorpayPaymentId().equals(captured.id())) {
+            return discrepancy(booking, captured.id(), ReconciliationReport.Issue.PAYMENT_ID_MISMATCH,
+                "Booking records payment " + booking.getRazorpayPaymentId());
+        }
+        // Judge by the booking status, not its payment status: a late capture can mark a
+        // cancelled booking PAID, and that is exactly the case that needs a refund
+        // Bookings already marked refund due are reported as REFUND_DUE instead
+        if (LIVE_STATUSES.contains(booking.getStatus()) || "refunded".equals(captured.status())
+                || booking.getRefundDueAt() != null) {
+            return null;
+        }
+
+        ReconciliationReport.Discrepancy discrepancy = discrepancy(booking, captured.id(),
+            ReconciliationReport.Issue.CAPTURED_NOT_CONFIRMED,
+            "Booking is " + booking.getStatus() + " with payment status " + booking.getPaymentStatus());
+        if (booking.getStatus() == Booking.BookingStatus.PENDING) {
+            // The scan projection leaves out the room, so confirm from the full document
+            try {
+                Booking current = bookingService.getBooking(booking.getBookingId());
+                if (current != null && current.getStatus() == Booking.BookingStatus.PENDING) {
+                    bookingService.confirmBooking(current, captured.id());
+                    emailOutbox.enqueue(current.getBookingId(), EmailOutbox.Template.BOOKING_CONFIRMATION);
+                    discrepancy.setFixed(true);
+                }
+            } catch (Exception e) {
+                discrepancy.setDetail(discrepancy.getDetail() + "; confirm failed: " + e.getMessage());
+            }
+        }
+        return discrepancy;
+    }
+
+    private static ReconciliationReport.Discrepancy discrepancy(Booking booking, String paymentId,
+                                                                ReconciliationReport.Issue issue, String detail) {
+        ReconciliationReport.Discrepancy discrepancy = new ReconciliationReport.Discrepancy();
+        discrepancy.setBookingId(booking.getBookingId());
+        discrepancy.setOrderId(booking.getRazorpayOrderId());
+        discrepancy.setPaymentId(paymentId);
+        discrepancy.setIssue(issue);
+        discrepancy.setDetail(detail);
+        return discrepancy;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdown();
+        fetchers.shutdown();
+    }
+}
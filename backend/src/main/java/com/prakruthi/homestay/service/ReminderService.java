@@ -0,0 +1,148 @@
+package com.prakruthi.homestay.service;
+
+import com.prakruthi.homestay.model.Booking;
+import com.prakruthi.homestay.repository.BookingRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Sends check-in reminders for tomorrow's arrivals and check-out reminders for today's
+ * departures. Bookings are streamed from a cursor in batches; each batch is marked as
+ * reminded before it is sent, so a restart never sends the same reminder twice.
+ */
+@Service
+public class ReminderService {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ResendEmailService emailService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${app.reminders.batch-size:100}")
+    private int batchSize;
+
+    private final int concurrency;
+    private final ExecutorService senders;
+
+    public ReminderService(@Value("${app.reminders.concurrency:4}") int concurrency) {
+        this.concurrency = concurrency;
+        this.senders = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "reminder-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Runs hourly during the day; batches that failed to send are picked up by the next run
+    @Scheduled(cron = "${app.reminders.cron:0 0 9-20 * * *}")
+    public void sendReminders() {
+        LocalDate today = LocalDate.now();
+        send(bookingRepository.streamCheckInReminders(today.plusDays(1)),
+            new Marker("checkInReminderSentAt", "checkInReminderClaim"), emailService::checkInReminder);
+        send(bookingRepository.streamCheckOutReminders(today),
+            new Marker("checkOutReminderSentAt", "checkOutReminderClaim"), emailService::checkOutReminder);
+    }
+
+    // When a reminder was sent, and the token of the run that claimed it
+    private record Marker(String sentAt, String claim) {
+    }
+
+    private void send(Stream<Booking> bookings, Marker marker, Function<Booking, ResendEmailService.Email> render) {
+        // At most `concurrency` batches are rendered or in flight at once
+        Semaphore inFlight = new Semaphore(concurrency);
+
+        try (bookings) {
+            List<Booking> batch = new ArrayList<>(batchSize);
+            Iterator<Booking> iterator = bookings.iterator();
+            while (iterator.hasNext()) {
+                Booking booking = iterator.next();
+                if (booking.getGuestDetails() == null
+                        || booking.getGuestDetails().getEmail() == null
+                        || booking.getGuestDetails().getName() == null) {
+                    continue;
+                }
+                batch.add(booking);
+                if (batch.size() == batchSize) {
+                    submit(batch, marker, render, inFlight);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                submit(batch, marker, render, inFlight);
+            }
+        } finally {
+            // Wait for the remaining batches before the next reminder type starts
+            inFlight.acquireUninterruptibly(concurrency);
+        }
+    }
+
+    private void submit(List<Booking> batch, Marker marker, Function<Booking, ResendEmailService.Email> render,
+                        Semaphore inFlight) {
+        inFlight.acquireUninterruptibly();
+        senders.execute(() -> {
+            try {
+                sendBatch(batch, marker, render);
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    private void sendBatch(List<Booking> batch, Marker marker, Function<Booking, ResendEmailService.Email> render) {
+        // Claim the whole batch in one update, only where the marker is still unset, so an
+        // overlapping run on this or another node cannot send the same reminder twice.
+        // The token tells this run's claims apart from any other run's.
+        String token = UUID.randomUUID().toString();
+        List<String> ids = batch.stream().map(Booking::getId).toList();
+        mongoTemplate.updateMulti(
+            Query.query(Criteria.where("_id").in(ids).and(marker.sentAt()).is(null)),
+            new Update().set(marker.sentAt(), LocalDateTime.now()).set(marker.claim(), token),
+            Booking.class);
+
+        Query ours = Query.query(Criteria.where("_id").in(ids).and(marker.claim()).is(token));
+        ours.fields().include("_id");
+        Set<String> claimedIds = new HashSet<>();
+        mongoTemplate.find(ours, Booking.class).forEach(booking -> claimedIds.add(booking.getId()));
+        List<Booking> claimed = batch.stream().filter(booking -> claimedIds.contains(booking.getId())).toList();
+        if (claimed.isEmpty()) {
+            return;
+        }
+
+        try {
+            emailService.sendBatch(claimed.stream().map(render).toList());
+        } catch (RuntimeException e) {
+            // Release only our own claims so the next run retries them
+            mongoTemplate.updateMulti(ours, new Update().unset(marker.sentAt()).unset(marker.claim()), Booking.class);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdown();
+    }
+}
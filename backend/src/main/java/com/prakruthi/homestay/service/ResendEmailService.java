@@ -1,90 +1,162 @@
 package com.prakruthi.homestay.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.prakruthi.homestay.model.Booking;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
 
-import java.time.format.DateTimeFormatter;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class ResendEmailService {
 
-    private final RestTemplate restTemplate;
-    private final TemplateEngine templateEngine;
+    /**
+     * A rendered email, ready to send on its own or as part of a batch.
+     */
+    public record Email(String to, String subject, String html) {
+    }
+
+    // One client for the whole app: it pools connections and negotiates HTTP/2 with Resend
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final EmailRenderer emailRenderer;
     private final String apiKey;
+    private final String baseUrl;
+    private final Duration requestTimeout;
+    private final int batchSize;
     private final String fromEmail;
     private final String fromName;
 
     public ResendEmailService(
             @Value("${resend.api.key}") String apiKey,
+            @Value("${resend.api.base-url:https://api.resend.com}") String baseUrl,
+            @Value("${resend.api.connect-timeout-ms:5000}") long connectTimeoutMs,
+            @Value("${resend.api.timeout-ms:10000}") long timeoutMs,
+            @Value("${resend.api.batch-size:100}") int batchSize,
             @Value("${app.email.from}") String fromEmail,
             @Value("${app.email.name}") String fromName,
-            TemplateEngine templateEngine) {
+            EmailRenderer emailRenderer,
+            ObjectMapper objectMapper) {
         this.apiKey = apiKey;
+        this.baseUrl = baseUrl;
+        this.requestTimeout = Duration.ofMillis(timeoutMs);
+        this.batchSize = batchSize;
         this.fromEmail = fromEmail;
         this.fromName = fromName;
-        this.templateEngine = templateEngine;
-        this.restTemplate = new RestTemplate();
+        this.emailRenderer = emailRenderer;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+            .build();
     }
 
     public void sendBookingConfirmation(Booking booking) {
-        Context context = new Context();
-        context.setVariables(Map.of(
+        Map<String, Object> variables = Map.of(
             "booking", booking,
-            "checkInDate", booking.getCheckInDate().format(DateTimeFormatter.ofPattern("MMM d, yyyy")),
-            "checkOutDate", booking.getCheckOutDate().format(DateTimeFormatter.ofPattern("MMM d, yyyy")),
+            "checkInDate", booking.getCheckInDate().format(EmailRenderer.DATE_FORMAT),
+            "checkOutDate", booking.getCheckOutDate().format(EmailRenderer.DATE_FORMAT),
             "checkInTime", "1:00 PM",
             "checkOutTime", "11:00 AM",
             "guestName", booking.getGuestDetails().getName(),
             "bookingId", booking.getBookingId(),
             "totalAmount", booking.getTotalAmount(),
             "roomName", booking.getRoom().getName()
-        ));
+        );
 
         String subject = "Booking Confirmation - Prakruthi Homestay";
-        String content = templateEngine.process("booking-confirmation", context);
+        String content = emailRenderer.render("booking-confirmation", variables);
         sendEmail(booking.getGuestDetails().getEmail(), subject, content);
     }
 
+    public Email checkInReminder(Booking booking) {
+        Map<String, Object> variables = Map.of(
+            "guestName", booking.getGuestDetails().getName(),
+            "checkInDate", booking.getCheckInDate().format(EmailRenderer.DATE_FORMAT),
+            "checkInTime", "1:00 PM",
+            "address", "Prakruthi Homestay, [Your Full Address]",
+            "contactNumber", "+91 98765 43210"
+        );
+
+        String subject = "Check-in Reminder - Prakruthi Homestay";
+        return new Email(booking.getGuestDetails().getEmail(), subject, emailRenderer.render("check-in-reminder", variables));
+    }
+
+    public Email checkOutReminder(Booking booking) {
+        Map<String, Object> variables = Map.of(
+            "guestName", booking.getGuestDetails().getName(),
+            "checkOutDate", booking.getCheckOutDate().format(EmailRenderer.DATE_FORMAT),
+            "checkOutTime", "11:00 AM"
+        );
+
+        String subject = "Check-out Reminder - Prakruthi Homestay";
+        return new Email(booking.getGuestDetails().getEmail(), subject, emailRenderer.render("check-out-reminder", variables));
+    }
+
     public void sendPasswordReset(String email, String resetToken) {
-        Context context = new Context();
-        context.setVariables(Map.of(
+        Map<String, Object> variables = Map.of(
             "resetLink", "http://localhost:3000/reset-password?token=" + resetToken,
             "expiryHours", "24"
-        ));
+        );
 
         String subject = "Password Reset - Prakruthi Homestay";
-        String content = templateEngine.process("password-reset", context);
+        String content = emailRenderer.render("password-reset", variables);
         sendEmail(email, subject, content);
     }
 
+    /**
+     * Sends the emails through Resend's batch endpoint, one request per chunk of
+     * up to batch-size emails instead of one request per email.
+     */
+    public void sendBatch(List<Email> emails) {
+        for (int from = 0; from < emails.size(); from += batchSize) {
+            List<Map<String, Object>> chunk = new ArrayList<>();
+            for (Email email : emails.subList(from, Math.min(from + batchSize, emails.size()))) {
+                chunk.add(toBody(email));
+            }
+            post("/emails/batch", chunk);
+        }
+    }
+
     private void sendEmail(String to, String subject, String htmlContent) {
-        String url = "https://api.resend.com/emails";
-        
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setBearerAuth(apiKey);
+        post("/emails", toBody(new Email(to, subject, htmlContent)));
+    }
 
+    private Map<String, Object> toBody(Email email) {
         Map<String, Object> body = new HashMap<>();
         body.put("from", String.format("%s <%s>", fromName, fromEmail));
-        body.put("to", to);
-        body.put("subject", subject);
-        body.put("html", htmlContent);
-
-        HttpEntity<Map<String, Object>> request = new HttpEntity<>(body, headers);
+        body.put("to", email.to());
+        body.put("subject", email.subject());
+        body.put("html", email.html());
+        return body;
+    }
 
+    private void post(String path, Object body) {
         try {
-            ResponseEntity<String> response = restTemplate.postForEntity(url, request, String.class);
-            if (response.getStatusCode() != HttpStatus.OK) {
-                throw new RuntimeException("Failed to send email: " + response.getBody());
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + apiKey)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() / 100 != 2) {
+                throw new RuntimeException("Failed to send email: " + response.body());
             }
-        } catch (Exception e) {
+        } catch (IOException e) {
+            throw new RuntimeException("Error sending email", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             throw new RuntimeException("Error sending email", e);
         }
     }
@@ -0,0 +1,132 @@
+package com.prakruthi.homestay.service;
+
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.prakruthi.homestay.model.Room;
+import com.prakruthi.homestay.repository.RoomRepository;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory snapshot of the room catalog. Reads are a single reference load; the
+ * snapshot is rebuilt whenever the rooms collection changes, as reported by a change
+ * stream, or on a fixed poll where change streams are unavailable (standalone Mongo).
+ * The rooms handed out are shared, so callers must not modify them.
+ */
+@Component
+@Order(3) // Run after DefaultRoomConfig has seeded the catalog
+public class RoomCatalog implements CommandLineRunner {
+
+    private record Snapshot(Map<String, Room> byId, List<Room> all, List<Room> active) {
+    }
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${app.rooms.catalog.poll-seconds:30}")
+    private long pollSeconds;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private volatile boolean running = true;
+    private volatile MongoChangeStreamCursor<ChangeStreamDocument<Document>> changeStream;
+
+    @Override
+    public void run(String... args) {
+        refresh();
+        Thread watcher = new Thread(this::watch, "room-catalog-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    public Optional<Room> findRoom(String id) {
+        return Optional.ofNullable(current().byId().get(id));
+    }
+
+    public Room getRoom(String id) {
+        return findRoom(id).orElseThrow(() -> new RuntimeException("Room not found"));
+    }
+
+    public List<Room> getAllRooms() {
+        return current().all();
+    }
+
+    public List<Room> getActiveRooms() {
+        return current().active();
+    }
+
+    /**
+     * Reloads the catalog. Writers call this so their own change is visible at once;
+     * other nodes pick it up from the change stream or the next poll.
+     */
+    public void refresh() {
+        List<Room> rooms = roomRepository.findAll();
+        Map<String, Room> byId = new LinkedHashMap<>();
+        rooms.forEach(room -> byId.put(room.getId(), room));
+        snapshot.set(new Snapshot(
+            Map.copyOf(byId),
+            List.copyOf(rooms),
+            rooms.stream().filter(room -> room.getStatus() == Room.RoomStatus.ACTIVE).toList()));
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            refresh();
+            current = snapshot.get();
+        }
+        return current;
+    }
+
+    private void watch() {
+        while (running) {
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor =
+                     mongoTemplate.getCollection("rooms").watch().cursor()) {
+                changeStream = cursor;
+                // Catch anything that changed between the last load and the stream opening
+                refresh();
+                while (running) {
+                    cursor.next();
+                    refresh();
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                // Change streams need a replica set; poll instead and try the stream again next round
+                try {
+                    Thread.sleep(pollSeconds * 1000);
+                    refresh();
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception refreshFailed) {
+                    // Keep serving the last snapshot until Mongo is reachable again
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = changeStream;
+        if (cursor != null) {
+            cursor.close();
+        }
+    }
+}
@@ -1,14 +1,24 @@
 package com.prakruthi.homestay.service;
 
+import com.prakruthi.homestay.model.Booking;
+import com.prakruthi.homestay.model.CursorPage;
+import com.prakruthi.homestay.model.DailyPrice;
 import com.prakruthi.homestay.model.Room;
+import com.prakruthi.homestay.repository.DailyPriceRepository;
+import com.prakruthi.homestay.repository.KeysetPaginator;
+import com.prakruthi.homestay.repository.PartialUpdateRepository;
 import com.prakruthi.homestay.repository.RoomRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class RoomService {
@@ -19,53 +29,122 @@ public class RoomService {
     @Autowired
     private AvailabilityService availabilityService;
 
+    @Autowired
+    private DailyPriceRepository dailyPriceRepository;
+
+    @Autowired
+    private PriceIndex priceIndex;
+
+    @Autowired
+    private RoomCatalog roomCatalog;
+
+    @Autowired
+    private KeysetPaginator keysetPaginator;
+
+    @Autowired
+    private PartialUpdateRepository partialUpdates;
+
     public List<Room> getAllRooms() {
-        return roomRepository.findAll();
+        return roomCatalog.getAllRooms();
     }
 
     public List<Room> getActiveRooms() {
-        return roomRepository.findByStatus(Room.RoomStatus.ACTIVE);
+        return roomCatalog.getActiveRooms();
     }
 
     public Room getRoomById(String id) {
-        return roomRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Room not found"));
+        return roomCatalog.getRoom(id);
     }
 
     @Transactional
     public Room createRoom(Room room) {
         room.setStatus(Room.RoomStatus.ACTIVE);
-        return roomRepository.save(room);
+        Room saved = roomRepository.save(room);
+        roomCatalog.refresh();
+        return saved;
     }
 
     @Transactional
     public Room updateRoom(String id, Room roomDetails) {
-        Room room = getRoomById(id);
-        
-        room.setName(roomDetails.getName());
-        room.setDescription(roomDetails.getDescription());
-        room.setRoomType(roomDetails.getRoomType());
-        room.setBasePrice(roomDetails.getBasePrice());
-        room.setCapacity(roomDetails.getCapacity());
-        room.setAmenities(roomDetails.getAmenities());
-        room.setImages(roomDetails.getImages());
-        room.setStatus(roomDetails.getStatus());
-        
-        return roomRepository.save(room);
+        Update update = new Update()
+            .set("name", roomDetails.getName())
+            .set("description", roomDetails.getDescription())
+            .set("roomType", roomDetails.getRoomType())
+            .set("basePrice", roomDetails.getBasePrice())
+            .set("capacity", roomDetails.getCapacity())
+            .set("amenities", roomDetails.getAmenities())
+            .set("images", roomDetails.getImages())
+            .set("status", roomDetails.getStatus());
+
+        // Guarded by the version the admin loaded, when the request carries one
+        Room saved = partialUpdates.updateById(Room.class, id, roomDetails.getVersion(), update);
+        if (saved == null) {
+            throw new RuntimeException("Room not found");
+        }
+        priceIndex.invalidate(id);
+        roomCatalog.refresh();
+        return saved;
     }
 
     @Transactional
     public void deleteRoom(String id) {
-        Room room = getRoomById(id);
-        room.setStatus(Room.RoomStatus.MAINTENANCE);
-        roomRepository.save(room);
+        Room room = partialUpdates.updateById(Room.class, id, null,
+            new Update().set("status", Room.RoomStatus.MAINTENANCE));
+        if (room == null) {
+            throw new RuntimeException("Room not found");
+        }
+        roomCatalog.refresh();
     }
 
     public List<Room> getRoomsByType(String roomType) {
-        return roomRepository.findByRoomType(roomType);
+        return roomCatalog.getAllRooms().stream()
+            .filter(room -> roomType.equals(room.getRoomType()))
+            .toList();
     }
 
-    public Page<Room> getRoomsWithPagination(Pageable pageable) {
-        return roomRepository.findAll(pageable);
+    public CursorPage<Room> getRoomsWithPagination(String cursor, Integer limit, boolean includeTotal) {
+        return keysetPaginator.page(Room.class, null, cursor, limit, includeTotal);
+    }
+
+    public List<Map<String, Object>> searchAvailableRooms(LocalDate startDate, LocalDate endDate, int guests) {
+        // Availability is answered from memory, so filter first and price the survivors in one query
+        List<Room> candidates = getActiveRooms().stream()
+            .filter(room -> room.getCapacity() >= guests)
+            .filter(room -> availabilityService.isRoomAvailable(room.getId(), startDate, endDate))
+            .toList();
+
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Map<LocalDate, BigDecimal>> overrides = new HashMap<>();
+        List<String> roomIds = candidates.stream().map(Room::getId).toList();
+        for (DailyPrice price : dailyPriceRepository.findByRoomIdInAndDateBetween(roomIds, startDate, endDate)) {
+            overrides.computeIfAbsent(price.getRoomId(), id -> new HashMap<>())
+                .put(price.getDate(), price.getPrice());
+        }
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (Room room : candidates) {
+            Map<LocalDate, BigDecimal> roomPrices = overrides.getOrDefault(room.getId(), Map.of());
+            BigDecimal basePrice = room.getBasePrice() != null ? room.getBasePrice() : BigDecimal.ZERO;
+            List<Booking.DailyRate> nightlyPrices = new ArrayList<>();
+            BigDecimal totalPrice = BigDecimal.ZERO;
+
+            for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+                Booking.DailyRate rate = new Booking.DailyRate();
+                rate.setDate(date);
+                rate.setPrice(roomPrices.getOrDefault(date, basePrice));
+                nightlyPrices.add(rate);
+                totalPrice = totalPrice.add(rate.getPrice());
+            }
+
+            results.add(Map.of(
+                "room", room,
+                "nightlyPrices", nightlyPrices,
+                "totalPrice", totalPrice
+            ));
+        }
+        return results;
     }
 }
@@ -0,0 +1,296 @@
+package com.prakruthi.homestay.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prakruthi.homestay.model.Booking;
+import com.prakruthi.homestay.model.EmailOutbox;
+import com.prakruthi.homestay.model.WebhookEvent;
+import com.prakruthi.homestay.repository.PartialUpdateRepository;
+import com.prakruthi.homestay.repository.WebhookEventRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records Razorpay webhook events and applies them to bookings on a background
+ * worker, so the webhook can be acknowledged before any booking work is done.
+ */
+@Service
+public class WebhookService {
+
+    private static final Duration CLAIM_LEASE = Duration.ofMinutes(5);
+
+    @Autowired
+    private WebhookEventRepository eventRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private EmailOutboxService emailOutbox;
+
+    @Autowired
+    private PaymentStatusService paymentStatusService;
+
+    @Autowired
+    private PartialUpdateRepository partialUpdates;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.webhooks.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.webhooks.initial-backoff-seconds:10}")
+    private long initialBackoffSeconds;
+
+    @Value("${app.webhooks.max-backoff-seconds:1800}")
+    private long maxBackoffSeconds;
+
+    private final ThreadPoolExecutor workers;
+
+    public WebhookService(
+            @Value("${app.webhooks.workers:2}") int workerCount,
+            @Value("${app.webhooks.queue-size:1000}") int queueSize) {
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueSize), runnable -> {
+                Thread thread = new Thread(runnable, "razorpay-webhook");
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    /**
+     * Stores the event and queues it for processing. Returns false if the event was
+     * already received, in which case it is not processed again.
+     */
+    public boolean receive(String eventId, String event, String payload) {
+        WebhookEvent webhookEvent = new WebhookEvent();
+        webhookEvent.setId(eventId);
+        webhookEvent.setEvent(event);
+        webhookEvent.setPayload(payload);
+        webhookEvent.setReceivedAt(Instant.now());
+        webhookEvent.setNextAttemptAt(webhookEvent.getReceivedAt());
+
+        try {
+            eventRepository.insert(webhookEvent);
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+
+        try {
+            workers.execute(() -> {
+                WebhookEvent claimed = claim(eventId);
+                if (claimed != null) {
+                    process(claimed);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Workers are saturated; the poller will pick the event up
+        }
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${app.webhooks.poll-ms:10000}")
+    public void processDue() {
+        while (workers.getQueue().remainingCapacity() > 0) {
+            WebhookEvent claimed = claim(null);
+            if (claimed == null) {
+                return;
+            }
+            try {
+                workers.execute(() -> process(claimed));
+            } catch (RejectedExecutionException e) {
+                return;
+            }
+        }
+    }
+
+    private WebhookEvent claim(String id) {
+        Instant now = Instant.now();
+        Criteria criteria = Criteria.where("status").in(WebhookEvent.Status.RECEIVED, WebhookEvent.Status.PROCESSING)
+            .and("nextAttemptAt").lte(now);
+        if (id != null) {
+            criteria.and("_id").is(id);
+        }
+        Update update = new Update()
+            .set("status", WebhookEvent.Status.PROCESSING)
+            .set("nextAttemptAt", now.plus(CLAIM_LEASE))
+            .inc("attempts", 1);
+        return mongoTemplate.findAndModify(Query.query(criteria), update,
+            FindAndModifyOptions.options().returnNew(true), WebhookEvent.class);
+    }
+
+    private void process(WebhookEvent webhookEvent) {
+        try {
+            JsonNode payload = objectMapper.readTree(webhookEvent.getPayload()).path("payload");
+
+            switch (webhookEvent.getEvent()) {
+                case "payment.captured" -> handlePaymentCaptured(payload.path("payment").path("entity"));
+                case "payment.failed" -> handlePaymentFailed(payload.path("payment").path("entity"));
+                case "refund.processed" -> handleRefundProcessed(payload.path("refund").path("entity"));
+                default -> {
+                    // Not an event we act on
+                }
+            }
+
+            mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(webhookEvent.getId())),
+                new Update()
+                    .set("status", WebhookEvent.Status.PROCESSED)
+                    .set("processedAt", Instant.now())
+                    .unset("nextAttemptAt")
+                    .unset("lastError"),
+                WebhookEvent.class);
+        } catch (Exception e) {
+            boolean exhausted = webhookEvent.getAttempts() >= maxAttempts;
+            Update update = new Update()
+                .set("status", exhausted ? WebhookEvent.Status.FAILED : WebhookEvent.Status.RECEIVED)
+                .set("lastError", e.getMessage());
+            if (exhausted) {
+                update.unset("nextAttemptAt");
+            } else {
+                long backoff = Math.min(initialBackoffSeconds << Math.min(webhookEvent.getAttempts() - 1, 20), maxBackoffSeconds);
+                update.set("nextAttemptAt", Instant.now().plusSeconds(backoff));
+            }
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(webhookEvent.getId())), update, WebhookEvent.class);
+        }
+    }
+
+    private void handlePaymentCaptured(JsonNode payment) {
+        // Retries can arrive long after newer events, so drop the entry rather than overwrite it
+        paymentStatusService.invalidate(payment.path("id").asText());
+
+        Booking booking = bookingService.getBookingByOrderId(payment.path("order_id").asText());
+        if (booking == null) {
+            throw new RuntimeException("Booking not found");
+        }
+        String paymentId = payment.path("id").asText();
+
+        // The checkout callback usually gets here first; only finish what it has not.
+        // A capture after the hold lapsed takes the nights back if nobody else has.
+        boolean lapsedHold = booking.getStatus() == Booking.BookingStatus.CANCELLED
+            && BookingService.HOLD_EXPIRED_REASON.equals(booking.getCancellationReason());
+        if (booking.getStatus() == Booking.BookingStatus.PENDING || lapsedHold) {
+            Booking confirmed = bookingService.confirmIfAvailable(booking, paymentId);
+            booking = confirmed != null ? confirmed : recordPaymentForRefund(booking, paymentId);
+        } else if (booking.getPaymentStatus() == null || booking.getPaymentStatus() == Booking.PaymentStatus.FAILED) {
+            // Anything else (paid, refunded, partly refunded) already has its payment recorded
+            Update update = new Update();
+            if (booking.getStatus() == Booking.BookingStatus.CANCELLED
+                    || booking.getStatus() == Booking.BookingStatus.REFUNDED) {
+                update.set("refundDueAt", LocalDateTime.now());
+            }
+            booking = recordPayment(booking, paymentId, update);
+        }
+
+        if (booking.getStatus() == Booking.BookingStatus.CONFIRMED) {
+            emailOutbox.enqueue(booking.getBookingId(), EmailOutbox.Template.BOOKING_CONFIRMATION);
+        }
+    }
+
+    /**
+     * The nights went to someone else, so the booking stays cancelled with the payment
+     * recorded and marked refund due; reconciliation reports it until it is refunded.
+     */
+    private Booking recordPaymentForRefund(Booking booking, String paymentId) {
+        Update update = new Update().set("refundDueAt", LocalDateTime.now());
+        if (booking.getStatus() == Booking.BookingStatus.PENDING) {
+            update.set("status", Booking.BookingStatus.CANCELLED)
+                .set("cancellationReason", BookingService.HOLD_EXPIRED_REASON)
+                .unset("holdExpiresAt");
+        }
+        return recordPayment(booking, paymentId, update);
+    }
+
+    // Only applies if the booking is still in the status it was read in; otherwise the event is retried
+    private Booking recordPayment(Booking booking, String paymentId, Update update) {
+        Booking updated = partialUpdates.updateFirst(Booking.class,
+            Criteria.where("_id").is(booking.getId()).and("status").is(booking.getStatus()),
+            update.set("razorpayPaymentId", paymentId).set("paymentStatus", Booking.PaymentStatus.PAID));
+        if (updated == null) {
+            throw new RuntimeException("Booking changed while recording payment");
+        }
+        return updated;
+    }
+
+    private void handlePaymentFailed(JsonNode payment) {
+        paymentStatusService.invalidate(payment.path("id").asText());
+
+        // The guest can retry against the same order, so the hold stays until it lapses
+        partialUpdates.updateFirst(Booking.class,
+            Criteria.where("razorpayOrderId").is(payment.path("order_id").asText())
+                .and("status").is(Booking.BookingStatus.PENDING),
+            new Update().set("paymentStatus", Booking.PaymentStatus.FAILED));
+    }
+
+    private void handleRefundProcessed(JsonNode refund) {
+        paymentStatusService.invalidate(refund.path("payment_id").asText());
+
+        Booking booking = bookingService.getBookingByPaymentId(refund.path("payment_id").asText());
+        if (booking == null) {
+            throw new RuntimeException("Booking not found");
+        }
+
+        String refundId = refund.path("id").asText();
+        if (booking.getRefundDetails() != null
+                && booking.getRefundDetails().stream().anyMatch(r -> refundId.equals(r.getRefundId()))) {
+            return;
+        }
+
+        Booking.RefundDetails details = new Booking.RefundDetails();
+        details.setRefundId(refundId);
+        details.setAmount(BigDecimal.valueOf(refund.path("amount").asLong(), 2));
+        details.setReason("Refund processed by Razorpay");
+        details.setProcessedAt(LocalDateTime.now());
+        if (booking.getRefundDetails() == null) {
+            booking.setRefundDetails(new ArrayList<>());
+        }
+        booking.getRefundDetails().add(details);
+
+        // Several partial refunds can add up to the whole amount
+        BigDecimal refunded = booking.getRefundDetails().stream()
+            .map(Booking.RefundDetails::getAmount)
+            .filter(Objects::nonNull)
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        boolean fullRefund = refunded.compareTo(booking.getTotalAmount()) >= 0;
+        booking.setPaymentStatus(fullRefund ? Booking.PaymentStatus.REFUNDED : Booking.PaymentStatus.PARTIAL_REFUND);
+        if (fullRefund) {
+            booking.setRefundDueAt(null);
+        }
+
+        if (fullRefund && booking.getStatus() != Booking.BookingStatus.REFUNDED
+                && booking.getStatus() != Booking.BookingStatus.CANCELLED) {
+            bookingService.releaseBooking(booking, Booking.BookingStatus.REFUNDED, details.getReason());
+        } else {
+            bookingService.updateBooking(booking);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+}
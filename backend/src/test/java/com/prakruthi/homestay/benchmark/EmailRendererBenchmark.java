@@ -0,0 +1,90 @@
+package com.prakruthi.homestay.benchmark;
+
+import com.prakruthi.homestay.service.EmailRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-email cost of rendering a check-in reminder: the old path (fresh formatter,
+ * whole template and layout processed every time) against {@link EmailRenderer}.
+ * Run with {@code main} from the test classpath; the GC profiler reports allocation
+ * per render as gc.alloc.rate.norm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailRendererBenchmark {
+
+    private SpringTemplateEngine templateEngine;
+    private EmailRenderer renderer;
+    private final LocalDate checkInDate = LocalDate.of(2025, 12, 24);
+
+    @Setup
+    public void setUp() {
+        // The old path: the same templates, resolved and cached the same way
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+        renderer = new EmailRenderer();
+    }
+
+    @Benchmark
+    public String fullTemplate() {
+        Context context = new Context();
+        context.setVariable("contentTemplate", "check-in-reminder");
+        context.setVariable("guestName", "Asha Rao");
+        context.setVariable("checkInDate", checkInDate.format(DateTimeFormatter.ofPattern("MMM d, yyyy")));
+        context.setVariable("checkInTime", "1:00 PM");
+        context.setVariable("address", "Prakruthi Homestay, [Your Full Address]");
+        context.setVariable("contactNumber", "+91 98765 43210");
+        return templateEngine.process("check-in-reminder", context);
+    }
+
+    @Benchmark
+    public String emailRenderer() {
+        return renderer.render("check-in-reminder", Map.of(
+            "guestName", "Asha Rao",
+            "checkInDate", checkInDate.format(EmailRenderer.DATE_FORMAT),
+            "checkInTime", "1:00 PM",
+            "address", "Prakruthi Homestay, [Your Full Address]",
+            "contactNumber", "+91 98765 43210"
+        ));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(EmailRendererBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+}
@@ -0,0 +1,138 @@
+package com.prakruthi.homestay.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prakruthi.homestay.service.EmailRenderer;
+import com.prakruthi.homestay.service.ResendEmailService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to hand a run of reminder emails to Resend one request per email against
+ * {@link ResendEmailService#sendBatch} in chunks. Resend is replaced by an in-process
+ * HTTP server on loopback that answers after {@code latencyMs}, standing in for the
+ * round trip to the real API. The one-per-email service is the same class with a
+ * batch size of 1. Run with {@code main} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResendBatchBenchmark {
+
+    @Param({"10", "100"})
+    private int emails;
+
+    @Param({"0", "20"})
+    private int latencyMs;
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private ResendEmailService oneByOne;
+    private ResendEmailService batched;
+    private List<ResendEmailService.Email> reminders;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        serverThreads = Executors.newFixedThreadPool(4);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        // Also matches /emails/batch
+        server.createContext("/emails", this::respond);
+        server.setExecutor(serverThreads);
+        server.start();
+        String baseUrl = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+
+        EmailRenderer renderer = new EmailRenderer();
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        oneByOne = new ResendEmailService("test-key", baseUrl, 5000, 10000, 1,
+            "stays@example.com", "Prakruthi Homestay", renderer, objectMapper);
+        batched = new ResendEmailService("test-key", baseUrl, 5000, 10000, 100,
+            "stays@example.com", "Prakruthi Homestay", renderer, objectMapper);
+
+        String html = renderer.render("check-in-reminder", Map.of(
+            "guestName", "Asha Rao",
+            "checkInDate", "Dec 24, 2025",
+            "checkInTime", "1:00 PM",
+            "address", "Prakruthi Homestay, [Your Full Address]",
+            "contactNumber", "+91 98765 43210"
+        ));
+        reminders = new ArrayList<>();
+        for (int i = 0; i < emails; i++) {
+            reminders.add(new ResendEmailService.Email("guest" + i + "@example.com",
+                "Check-in Reminder - Prakruthi Homestay", html));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Benchmark
+    public void oneRequestPerEmail() {
+        oneByOne.sendBatch(reminders);
+    }
+
+    @Benchmark
+    public void batchEndpoint() {
+        batched.sendBatch(reminders);
+    }
+
+    // Reads the whole body like Resend would, then answers 200 after the simulated latency
+    private void respond(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            in.readAllBytes();
+        }
+        if (latencyMs > 0) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        byte[] response = "{\"data\":[]}".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(ResendBatchBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,141 @@
+package com.prakruthi.homestay.service;
+
+import com.prakruthi.homestay.model.AvailabilityBlock;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AvailabilityIntervalServiceTest {
+
+    private static final String ROOM = "room-1";
+    private static final LocalDate DAY = LocalDate.of(2025, 1, 10);
+
+    @Test
+    void adjacentBlocksWithTheSameStateAreMerged() {
+        AvailabilityBlock before = block("a", DAY.minusDays(5), DAY.minusDays(1), true, null);
+        AvailabilityBlock after = block("b", DAY.plusDays(3), DAY.plusDays(6), true, null);
+
+        AvailabilityIntervalService.Plan plan = AvailabilityIntervalService.plan(
+            List.of(before, after), ROOM, DAY, DAY.plusDays(2), true, null, null, "admin");
+
+        assertThat(plan.delete()).containsExactlyInAnyOrder(before, after);
+        assertThat(plan.save()).singleElement().satisfies(merged -> {
+            assertThat(merged.getStartDate()).isEqualTo(DAY.minusDays(5));
+            assertThat(merged.getEndDate()).isEqualTo(DAY.plusDays(6));
+            assertThat(merged.isAvailable()).isTrue();
+        });
+    }
+
+    @Test
+    void adjacentBlocksWithADifferentStateAreLeftAlone() {
+        AvailabilityBlock before = block("a", DAY.minusDays(5), DAY.minusDays(1), true, null);
+
+        AvailabilityIntervalService.Plan plan = AvailabilityIntervalService.plan(
+            List.of(before), ROOM, DAY, DAY.plusDays(2), false, "MAINTENANCE", null, "admin");
+
+        assertThat(plan.delete()).isEmpty();
+        assertThat(plan.save()).singleElement().satisfies(saved -> {
+            assertThat(saved.getStartDate()).isEqualTo(DAY);
+            assertThat(saved.getEndDate()).isEqualTo(DAY.plusDays(2));
+        });
+        assertThat(before.getEndDate()).isEqualTo(DAY.minusDays(1));
+    }
+
+    @Test
+    void nestedRangeSplitsTheEnclosingBlock() {
+        AvailabilityBlock enclosing = block("a", DAY.minusDays(5), DAY.plusDays(5), true, null);
+
+        AvailabilityIntervalService.Plan plan = AvailabilityIntervalService.plan(
+            List.of(enclosing), ROOM, DAY, DAY.plusDays(1), false, "BOOKED", "PH1", null);
+
+        assertThat(plan.delete()).isEmpty();
+        List<AvailabilityBlock> saved = sorted(plan.save());
+        assertThat(saved).hasSize(3);
+
+        assertThat(saved.get(0).getId()).isEqualTo("a");
+        assertThat(saved.get(0).getStartDate()).isEqualTo(DAY.minusDays(5));
+        assertThat(saved.get(0).getEndDate()).isEqualTo(DAY.minusDays(1));
+        assertThat(saved.get(0).isAvailable()).isTrue();
+
+        assertThat(saved.get(1).getStartDate()).isEqualTo(DAY);
+        assertThat(saved.get(1).getEndDate()).isEqualTo(DAY.plusDays(1));
+        assertThat(saved.get(1).isAvailable()).isFalse();
+        assertThat(saved.get(1).getBookingId()).isEqualTo("PH1");
+
+        assertThat(saved.get(2).getId()).isNull();
+        assertThat(saved.get(2).getStartDate()).isEqualTo(DAY.plusDays(2));
+        assertThat(saved.get(2).getEndDate()).isEqualTo(DAY.plusDays(5));
+        assertThat(saved.get(2).isAvailable()).isTrue();
+    }
+
+    @Test
+    void rangeCoveringABlockReplacesIt() {
+        AvailabilityBlock inner = block("a", DAY.plusDays(1), DAY.plusDays(2), false, "MAINTENANCE");
+
+        AvailabilityIntervalService.Plan plan = AvailabilityIntervalService.plan(
+            List.of(inner), ROOM, DAY, DAY.plusDays(4), true, null, null, "admin");
+
+        assertThat(plan.delete()).containsExactly(inner);
+        assertThat(plan.save()).singleElement().satisfies(saved -> {
+            assertThat(saved.getStartDate()).isEqualTo(DAY);
+            assertThat(saved.getEndDate()).isEqualTo(DAY.plusDays(4));
+        });
+    }
+
+    @Test
+    void overlappingBlocksKeepOnlyTheirOutsideParts() {
+        AvailabilityBlock head = block("a", DAY.minusDays(3), DAY.plusDays(1), true, null);
+        AvailabilityBlock tail = block("b", DAY.plusDays(3), DAY.plusDays(8), false, "MAINTENANCE");
+
+        AvailabilityIntervalService.Plan plan = AvailabilityIntervalService.plan(
+            List.of(head, tail), ROOM, DAY, DAY.plusDays(4), false, "BOOKED", "PH2", null);
+
+        assertThat(plan.delete()).containsExactly(tail);
+        List<AvailabilityBlock> saved = sorted(plan.save());
+        assertThat(saved).hasSize(3);
+
+        assertThat(saved.get(0).getId()).isEqualTo("a");
+        assertThat(saved.get(0).getEndDate()).isEqualTo(DAY.minusDays(1));
+
+        assertThat(saved.get(1).getStartDate()).isEqualTo(DAY);
+        assertThat(saved.get(1).getEndDate()).isEqualTo(DAY.plusDays(4));
+        assertThat(saved.get(1).getReason()).isEqualTo("BOOKED");
+
+        assertThat(saved.get(2).getStartDate()).isEqualTo(DAY.plusDays(5));
+        assertThat(saved.get(2).getEndDate()).isEqualTo(DAY.plusDays(8));
+        assertThat(saved.get(2).getReason()).isEqualTo("MAINTENANCE");
+    }
+
+    @Test
+    void overlappingBlockWithTheSameStateIsAbsorbed() {
+        AvailabilityBlock overlapping = block("a", DAY.minusDays(2), DAY.plusDays(1), false, "MAINTENANCE");
+
+        AvailabilityIntervalService.Plan plan = AvailabilityIntervalService.plan(
+            List.of(overlapping), ROOM, DAY, DAY.plusDays(3), false, "MAINTENANCE", null, "admin");
+
+        assertThat(plan.delete()).containsExactly(overlapping);
+        assertThat(plan.save()).singleElement().satisfies(merged -> {
+            assertThat(merged.getStartDate()).isEqualTo(DAY.minusDays(2));
+            assertThat(merged.getEndDate()).isEqualTo(DAY.plusDays(3));
+        });
+    }
+
+    private static AvailabilityBlock block(String id, LocalDate start, LocalDate end, boolean available, String reason) {
+        AvailabilityBlock block = new AvailabilityBlock();
+        block.setId(id);
+        block.setRoomId(ROOM);
+        block.setStartDate(start);
+        block.setEndDate(end);
+        block.setAvailable(available);
+        block.setReason(reason);
+        return block;
+    }
+
+    private static List<AvailabilityBlock> sorted(List<AvailabilityBlock> blocks) {
+        return blocks.stream().sorted(Comparator.comparing(AvailabilityBlock::getStartDate)).toList();
+    }
+}
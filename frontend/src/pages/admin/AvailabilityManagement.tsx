@@ -98,13 +98,15 @@ const AvailabilityManagement = () => {
     if (!selectedRoom || !startDate || !endDate) return;
 
     try {
-      await axios.post('/api/admin/availability/bulk-update', {
-        roomId: selectedRoom,
-        startDate: format(startDate, 'yyyy-MM-dd'),
-        endDate: format(endDate, 'yyyy-MM-dd'),
-        isAvailable: dialogData.isAvailable,
-        reason: dialogData.reason,
-      });
+      await axios.post('/api/admin/availability/bulk-update', [
+        {
+          roomId: selectedRoom,
+          startDate: format(startDate, 'yyyy-MM-dd'),
+          endDate: format(endDate, 'yyyy-MM-dd'),
+          available: dialogData.isAvailable,
+          reason: dialogData.reason,
+        },
+      ]);
       fetchAvailability();
       handleCloseDialog();
     } catch (error) {
@@ -75,15 +75,16 @@ const BookingManagement = () => {
   const fetchBookings = async () => {
     setLoading(true);
     try {
-      const response = await axios.get('/api/admin/bookings', {
+      const response = await axios.get('/api/bookings/all', {
         params: {
+          limit: 100,
           status: filters.status || undefined,
           startDate: filters.startDate ? format(filters.startDate, 'yyyy-MM-dd') : undefined,
           endDate: filters.endDate ? format(filters.endDate, 'yyyy-MM-dd') : undefined,
           search: filters.searchQuery || undefined,
         },
       });
-      setBookings(response.data);
+      setBookings(response.data.items);
     } catch (error) {
       console.error('Error fetching bookings:', error);
     } finally {
@@ -72,8 +72,8 @@ const EmployeeManagement = () => {
 
   const fetchEmployees = async () => {
     try {
-      const response = await api.get('/api/admin/employees');
-      setEmployees(response.data);
+      const response = await api.get('/api/admin/employees', { params: { limit: 100 } });
+      setEmployees(response.data.items);
     } catch (error) {
       showToast('Failed to fetch employees', 'error');
     } finally {
@@ -19,8 +19,8 @@ export const fetchUserBookings = createAsyncThunk(
   'booking/fetchUserBookings',
   async (_, { rejectWithValue }) => {
     try {
-      const response = await axios.get('/api/bookings');
-      return response.data;
+      const response = await axios.get('/api/bookings', { params: { limit: 100 } });
+      return response.data.items;
     } catch (error: any) {
       return rejectWithValue(error.response?.data?.message || 'Failed to fetch bookings');
     }